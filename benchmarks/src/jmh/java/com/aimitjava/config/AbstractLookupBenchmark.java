@@ -0,0 +1,137 @@
+package com.aimitjava.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for every lookup path of {@link Configuration} and {@link LangchainConfiguration}.
+ * The thread count is chosen by the concrete subclasses, so the same cases can be compared
+ * single-threaded and under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractLookupBenchmark {
+    private static final String PROPERTIES_FILE = "benchmark.properties";
+
+    // Fixed environment so results do not depend on the machine running the benchmark
+    private static final Map<String, String> ENVIRONMENT = Map.of(
+            "bench.env.key", "env-value",
+            "OPENAI_API_KEY", "sk-benchmark");
+
+    private static final ConfigKey<Integer> INT_KEY = ConfigKey.ofInt("bench.int");
+
+    private Configuration configuration;
+    private Configuration meteredConfiguration;
+    private LangchainConfiguration langchainConfiguration;
+
+    @Setup
+    public void setUp() {
+        // An enumerable reader, so that relaxed lookups take the EnvironmentIndex path as in production
+        EnvironmentProvider environmentProvider =
+                new EnvironmentProvider(new EnvironmentProvider.SnapshotEnvironmentReader(ENVIRONMENT));
+        configuration = new Configuration(PROPERTIES_FILE, environmentProvider);
+        meteredConfiguration = new Configuration(PROPERTIES_FILE, environmentProvider);
+        meteredConfiguration.enableMetrics();
+        langchainConfiguration = new LangchainConfiguration(PROPERTIES_FILE, environmentProvider);
+    }
+
+    @Benchmark
+    public String propertyHit() {
+        return configuration.getProperty("bench.string");
+    }
+
+    @Benchmark
+    public String propertyMiss() {
+        return configuration.getProperty("bench.missing");
+    }
+
+    @Benchmark
+    public String propertyEnvironmentOverride() {
+        return configuration.getProperty("bench.env.key");
+    }
+
+    @Benchmark
+    public String propertyDefaultFallback() {
+        return configuration.getProperty("bench.missing", "default");
+    }
+
+    @Benchmark
+    public boolean hasPropertyHit() {
+        return configuration.hasProperty("bench.string");
+    }
+
+    @Benchmark
+    public boolean hasPropertyMiss() {
+        return configuration.hasProperty("bench.missing");
+    }
+
+    @Benchmark
+    public int intPropertyHit() {
+        return configuration.getIntProperty("bench.int", 0);
+    }
+
+    @Benchmark
+    public int intPropertyDefaultFallback() {
+        return configuration.getIntProperty("bench.missing", 7);
+    }
+
+    @Benchmark
+    public int intPropertyInvalidNumber() {
+        return configuration.getIntProperty("bench.invalid.int", 7);
+    }
+
+    @Benchmark
+    public int configKeyHit() {
+        return configuration.get(INT_KEY, 0);
+    }
+
+    @Benchmark
+    public int configKeyHitWithMetrics() {
+        return meteredConfiguration.get(INT_KEY, 0);
+    }
+
+    @Benchmark
+    public double doublePropertyHit() {
+        return configuration.getDoubleProperty("bench.double", 0.0);
+    }
+
+    @Benchmark
+    public boolean booleanPropertyHit() {
+        return configuration.getBooleanProperty("bench.boolean", false);
+    }
+
+    @Benchmark
+    public String openAiApiKey() {
+        return langchainConfiguration.getOpenAiApiKey();
+    }
+
+    @Benchmark
+    public String openAiModelName() {
+        return langchainConfiguration.getOpenAiModelName();
+    }
+
+    @Benchmark
+    public double openAiTemperature() {
+        return langchainConfiguration.getOpenAiTemperature();
+    }
+
+    @Benchmark
+    public OpenAiSettings openAiSettings() {
+        return langchainConfiguration.getOpenAiSettings();
+    }
+}
@@ -0,0 +1,10 @@
+package com.aimitjava.config;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Lookups under moderate contention (8 threads) for all cases of {@link AbstractLookupBenchmark}.
+ */
+@Threads(8)
+public class ContendedLookupBenchmark extends AbstractLookupBenchmark {
+}
@@ -0,0 +1,10 @@
+package com.aimitjava.config;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Lookups under heavy contention (64 threads) for all cases of {@link AbstractLookupBenchmark}.
+ */
+@Threads(64)
+public class HeavilyContendedLookupBenchmark extends AbstractLookupBenchmark {
+}
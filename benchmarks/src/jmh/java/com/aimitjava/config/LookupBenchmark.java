@@ -0,0 +1,10 @@
+package com.aimitjava.config;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Single-threaded baseline (1 thread) for all cases of {@link AbstractLookupBenchmark}.
+ */
+@Threads(1)
+public class LookupBenchmark extends AbstractLookupBenchmark {
+}
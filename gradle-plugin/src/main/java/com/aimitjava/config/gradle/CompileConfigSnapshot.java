@@ -0,0 +1,70 @@
+package com.aimitjava.config.gradle;
+
+import com.aimitjava.config.PropertiesSnapshot;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.FileVisitDetails;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Validates properties files and writes a {@code <name>.bin} snapshot of each, keeping the
+ * relative path of the file within its processed resource directory.
+ */
+public abstract class CompileConfigSnapshot extends DefaultTask {
+
+    /**
+     * @return The properties files, as trees rooted at their processed resource directories
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getPropertiesFiles();
+
+    /**
+     * @return The directory receiving the snapshots
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void compile() throws IOException {
+        Path output = getOutputDirectory().get().getAsFile().toPath();
+        // Remove snapshots of files that are no longer included
+        getFileSystemOperations().delete(spec -> spec.delete(output.toFile()));
+        Files.createDirectories(output);
+        try {
+            getPropertiesFiles().getAsFileTree().visit(file -> {
+                if (!file.isDirectory()) {
+                    compile(file, output);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw new GradleException("Invalid configuration: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void compile(FileVisitDetails file, Path output) {
+        Path snapshot = output.resolve(PropertiesSnapshot.snapshotName(file.getRelativePath().getPathString()));
+        try {
+            Files.createDirectories(snapshot.getParent());
+            PropertiesSnapshot.compile(file.getFile().toPath(), snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.aimitjava.config.gradle;
+
+import org.gradle.api.provider.ListProperty;
+
+/**
+ * Settings of the {@code com.aimitjava.config-snapshot} plugin.
+ */
+public abstract class ConfigSnapshotExtension {
+
+    /**
+     * @return Patterns of the resources to compile, relative to the resource directories;
+     *         defaults to {@code application.properties}
+     */
+    public abstract ListProperty<String> getIncludes();
+}
@@ -0,0 +1,53 @@
+package com.aimitjava.config.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.language.jvm.tasks.ProcessResources;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds a {@code compileConfigSnapshot} task that validates the properties files of the main
+ * resources and compiles each into a binary snapshot, so the configuration is loaded at runtime
+ * without parsing text. The snapshots are compiled from the output of {@code processResources},
+ * so they contain the expanded and filtered values, and are added to the main output next to the
+ * properties files. By default only {@code application.properties} is compiled:
+ * <pre>{@code
+ * configSnapshot {
+ *     includes = ['application.properties', 'langchain.properties']
+ * }
+ * }</pre>
+ */
+public class ConfigSnapshotPlugin implements Plugin<Project> {
+
+    @Override
+    public void apply(Project project) {
+        ConfigSnapshotExtension extension = project.getExtensions().create("configSnapshot", ConfigSnapshotExtension.class);
+        extension.getIncludes().convention(List.of("application.properties"));
+
+        project.getPlugins().withType(JavaPlugin.class, java -> {
+            SourceSet main = project.getExtensions().getByType(SourceSetContainer.class)
+                    .getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+            TaskProvider<ProcessResources> processResources = project.getTasks()
+                    .named(main.getProcessResourcesTaskName(), ProcessResources.class);
+
+            TaskProvider<CompileConfigSnapshot> compile = project.getTasks().register("compileConfigSnapshot",
+                    CompileConfigSnapshot.class, task -> {
+                        task.setGroup("build");
+                        task.setDescription("Compiles processed properties files into binary configuration snapshots.");
+                        task.dependsOn(processResources);
+                        task.getPropertiesFiles().from(project.provider(() ->
+                                project.fileTree(processResources.get().getDestinationDir())
+                                        .matching(pattern -> pattern.include(extension.getIncludes().get()))));
+                        task.getOutputDirectory().set(project.getLayout().getBuildDirectory().dir("generated/config-snapshot"));
+                    });
+
+            main.getOutput().dir(Map.of("builtBy", compile), compile.flatMap(CompileConfigSnapshot::getOutputDirectory));
+        });
+    }
+}
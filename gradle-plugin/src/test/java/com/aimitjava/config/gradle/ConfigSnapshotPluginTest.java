@@ -0,0 +1,108 @@
+package com.aimitjava.config.gradle;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConfigSnapshotPluginTest {
+    @TempDir
+    Path projectDir;
+
+    @Test
+    void shouldCompileIncludedPropertiesFilesKeepingTheirPaths() throws IOException {
+        // Given
+        writeProcessedResource("application.properties", "openai.model.name=gpt-4o\n");
+        writeProcessedResource("config/langchain.properties", "openai.temperature=0.2\n");
+        writeProcessedResource("other.properties", "ignored=true\n");
+        Project project = createProject();
+        project.getExtensions().getByType(ConfigSnapshotExtension.class)
+                .getIncludes().set(List.of("application.properties", "config/*.properties"));
+
+        // When
+        CompileConfigSnapshot task = (CompileConfigSnapshot) project.getTasks().getByName("compileConfigSnapshot");
+        task.compile();
+
+        // Then
+        Path output = task.getOutputDirectory().get().getAsFile().toPath();
+        assertThat(Files.isRegularFile(output.resolve("application.properties.bin")), is(true));
+        assertThat(Files.isRegularFile(output.resolve("config/langchain.properties.bin")), is(true));
+        assertThat(Files.exists(output.resolve("other.properties.bin")), is(false));
+    }
+
+    @Test
+    void shouldCompileProcessedRatherThanSourceResources() throws IOException {
+        // Given - a source resource that only becomes valid once processResources has expanded it
+        writeResource("application.properties", "version=\\u${version}\n");
+        writeProcessedResource("application.properties", "version=1.1.1\n");
+        Project project = createProject();
+
+        // When
+        CompileConfigSnapshot task = (CompileConfigSnapshot) project.getTasks().getByName("compileConfigSnapshot");
+        task.compile();
+
+        // Then
+        assertThat(Files.isRegularFile(task.getOutputDirectory().get().getAsFile().toPath()
+                .resolve("application.properties.bin")), is(true));
+    }
+
+    @Test
+    void shouldFailOnMalformedPropertiesFile() throws IOException {
+        // Given
+        writeProcessedResource("application.properties", "broken=\\u12G4\n");
+        Project project = createProject();
+
+        // When
+        CompileConfigSnapshot task = (CompileConfigSnapshot) project.getTasks().getByName("compileConfigSnapshot");
+
+        // Then
+        assertThrows(GradleException.class, task::compile);
+    }
+
+    @Test
+    void shouldAddSnapshotsToMainOutputAfterProcessingResources() {
+        // Given
+        Project project = createProject();
+        SourceSet main = project.getExtensions().getByType(SourceSetContainer.class).getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+
+        // Then
+        assertThat(main.getOutput().getDirs().getBuildDependencies().getDependencies(null).stream()
+                .map(Task::getName).toList(), hasItem("compileConfigSnapshot"));
+        assertThat(project.getTasks().getByName("compileConfigSnapshot").getTaskDependencies()
+                .getDependencies(null).stream().map(Task::getName).toList(), hasItem("processResources"));
+    }
+
+    private Project createProject() {
+        Project project = ProjectBuilder.builder().withProjectDir(projectDir.toFile()).build();
+        project.getPlugins().apply(JavaPlugin.class);
+        project.getPlugins().apply(ConfigSnapshotPlugin.class);
+        return project;
+    }
+
+    private void writeResource(String name, String content) throws IOException {
+        write(projectDir.resolve("src/main/resources").resolve(name), content);
+    }
+
+    private void writeProcessedResource(String name, String content) throws IOException {
+        write(projectDir.resolve("build/resources/main").resolve(name), content);
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,223 @@
+package com.aimitjava.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * A set of API keys used in turn to spread requests over per-key rate limits. Selection is
+ * lock-free: the weighted rotation is precomputed as a schedule, and a selection is a single
+ * atomic increment plus an array read. Keys reported as throttled are skipped until their
+ * throttle expires.
+ */
+public final class ApiKeyPool {
+    // The longest schedule built; larger weights are scaled down proportionally
+    private static final int MAX_SCHEDULE_LENGTH = 4096;
+
+    private final List<String> keys;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    // Key indexes in rotation order; a key with weight n occurs n times, evenly spread
+    private final int[] schedule;
+    private final AtomicInteger position = new AtomicInteger();
+    // System.nanoTime() until which each key is throttled
+    private final AtomicLongArray throttledUntil;
+    private final LongSupplier clock;
+
+    /**
+     * A key with its share of the requests.
+     *
+     * @param key The API key
+     * @param weight The relative number of requests sent with the key, at least 1
+     */
+    public record WeightedKey(String key, int weight) {
+        public WeightedKey {
+            if (key == null || key.isEmpty()) {
+                throw new IllegalArgumentException("API key must not be empty");
+            }
+            if (weight < 1) {
+                throw new IllegalArgumentException("Weight of an API key must be at least 1: " + weight);
+            }
+        }
+    }
+
+    ApiKeyPool(List<WeightedKey> keys, LongSupplier clock) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("An API key pool needs at least one key");
+        }
+        List<String> names = new ArrayList<>(keys.size());
+        for (WeightedKey key : keys) {
+            if (indexes.putIfAbsent(key.key(), names.size()) == null) {
+                names.add(key.key());
+            }
+        }
+        this.keys = List.copyOf(names);
+        this.schedule = smoothSchedule(keys, indexes);
+        this.throttledUntil = new AtomicLongArray(this.keys.size());
+        this.clock = clock;
+        // nanoTime() may be negative, so "not throttled" is "throttled until now"
+        long now = clock.getAsLong();
+        for (int i = 0; i < this.keys.size(); i++) {
+            throttledUntil.set(i, now);
+        }
+    }
+
+    /**
+     * Creates a pool using the keys in turn with equal weight.
+     *
+     * @param keys The API keys
+     * @return The pool
+     */
+    public static ApiKeyPool of(List<String> keys) {
+        List<WeightedKey> weighted = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            weighted.add(new WeightedKey(key, 1));
+        }
+        return weighted(weighted);
+    }
+
+    /**
+     * Creates a pool using each key in proportion to its weight.
+     *
+     * @param keys The API keys with their weights
+     * @return The pool
+     */
+    public static ApiKeyPool weighted(List<WeightedKey> keys) {
+        return new ApiKeyPool(keys, System::nanoTime);
+    }
+
+    /**
+     * Builds a schedule in which each key occurs as often as its weight, interleaved as evenly
+     * as possible (smooth weighted round-robin), so that a heavy key is not used in bursts.
+     * Weights are reduced by their greatest common divisor; if they still add up to more than
+     * {@value #MAX_SCHEDULE_LENGTH}, they are scaled down to approximately the same ratio.
+     */
+    private static int[] smoothSchedule(List<WeightedKey> keys, Map<String, Integer> indexes) {
+        int[] weights = normalizedWeights(keys);
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int[] schedule = new int[total];
+        int[] current = new int[keys.size()];
+        for (int slot = 0; slot < total; slot++) {
+            int best = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                current[i] += weights[i];
+                if (current[i] > current[best]) {
+                    best = i;
+                }
+            }
+            current[best] -= total;
+            schedule[slot] = indexes.get(keys.get(best).key());
+        }
+        return schedule;
+    }
+
+    private static int[] normalizedWeights(List<WeightedKey> keys) {
+        int divisor = 0;
+        for (WeightedKey key : keys) {
+            divisor = gcd(divisor, key.weight());
+        }
+        int[] weights = new int[keys.size()];
+        long total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = keys.get(i).weight() / divisor;
+            total += weights[i];
+        }
+        if (total > MAX_SCHEDULE_LENGTH) {
+            // Every key keeps at least one slot, so the schedule stays below MAX_SCHEDULE_LENGTH plus the number of keys
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = (int) Math.max(1, weights[i] * (long) MAX_SCHEDULE_LENGTH / total);
+            }
+        }
+        return weights;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    /**
+     * Selects the next key that is not throttled. If all keys are throttled, the key whose
+     * throttle expires first is returned.
+     *
+     * @return The key to use for the next request
+     */
+    public String next() {
+        int start = position.getAndIncrement();
+        long now = clock.getAsLong();
+        int earliest = -1;
+        for (int attempt = 0; attempt < schedule.length; attempt++) {
+            int index = schedule[Math.floorMod(start + attempt, schedule.length)];
+            long until = throttledUntil.get(index);
+            if (until - now <= 0) {
+                return keys.get(index);
+            }
+            if (earliest < 0 || until - throttledUntil.get(earliest) < 0) {
+                earliest = index;
+            }
+        }
+        return keys.get(earliest);
+    }
+
+    /**
+     * Skips a key for a while, e.g. after the API answered with HTTP 429.
+     *
+     * @param key The throttled key; unknown keys are ignored
+     * @param duration How long to skip the key, e.g. the {@code Retry-After} of the response
+     */
+    public void markThrottled(String key, Duration duration) {
+        Integer index = indexes.get(key);
+        if (index == null) {
+            return;
+        }
+        long until = clock.getAsLong() + duration.toNanos();
+        // Never shorten a longer throttle reported concurrently
+        throttledUntil.accumulateAndGet(index, until, (current, next) -> next - current > 0 ? next : current);
+    }
+
+    /**
+     * @param key The key
+     * @return true if the key is currently skipped
+     */
+    public boolean isThrottled(String key) {
+        Integer index = indexes.get(key);
+        return index != null && throttledUntil.get(index) - clock.getAsLong() > 0;
+    }
+
+    /**
+     * Takes over the throttles of keys that are also part of another pool, e.g. after the
+     * configuration was reloaded.
+     */
+    void inheritThrottles(ApiKeyPool previous) {
+        for (int i = 0; i < keys.size(); i++) {
+            Integer index = previous.indexes.get(keys.get(i));
+            if (index != null) {
+                throttledUntil.set(i, previous.throttledUntil.get(index));
+            }
+        }
+    }
+
+    /**
+     * @return The distinct keys of the pool
+     */
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    @Override
+    public String toString() {
+        // Never print the keys themselves
+        return "ApiKeyPool[" + keys.size() + " keys]";
+    }
+}
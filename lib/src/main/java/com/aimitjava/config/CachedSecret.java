@@ -0,0 +1,128 @@
+package com.aimitjava.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * A secret cached for a time-to-live. Reads return the cached value; once three quarters of the
+ * TTL have passed, the next read starts a single asynchronous refresh and keeps returning the
+ * cached value until the refresh completes. If a refresh fails, the previous value is kept and the
+ * refresh is retried after an eighth of the TTL.
+ * <p>
+ * The TTL is a hard limit: a value is never returned after it expired. Only the first read and a
+ * read after expiry, i.e. if every refresh failed or none was started in time, load synchronously.
+ */
+final class CachedSecret {
+    private final Callable<String> loader;
+    private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final long retryAfterNanos;
+    private final LongSupplier clock;
+    private final Executor executor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Entry entry;
+
+    /**
+     * @param value The cached value, possibly null
+     * @param refreshAt The {@link System#nanoTime()} after which a refresh is started
+     * @param expiresAt The {@link System#nanoTime()} after which the value must not be returned
+     */
+    private record Entry(String value, long refreshAt, long expiresAt) {
+    }
+
+    CachedSecret(Callable<String> loader, Duration ttl) {
+        this(loader, ttl, System::nanoTime, task -> Thread.ofVirtual().name("config-secret-refresh").start(task));
+    }
+
+    CachedSecret(Callable<String> loader, Duration ttl, LongSupplier clock, Executor executor) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive: " + ttl);
+        }
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAfterNanos = ttlNanos / 4 * 3;
+        this.retryAfterNanos = ttlNanos / 8;
+        this.clock = clock;
+        this.executor = executor;
+    }
+
+    /**
+     * @return The cached value, or null if the secret does not exist
+     * @throws IllegalStateException if the cached value expired and the secret cannot be resolved
+     */
+    String get() {
+        Entry current = entry;
+        if (current == null) {
+            return loadInitial();
+        }
+        long now = clock.getAsLong();
+        if (now - current.expiresAt() >= 0) {
+            return loadExpired();
+        }
+        if (now - current.refreshAt() >= 0 && refreshing.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> refresh(current));
+            } catch (RuntimeException e) {
+                // Otherwise no refresh would ever be started again
+                refreshing.set(false);
+                System.err.println("Warning: Could not start secret refresh: " + e.getMessage());
+            }
+        }
+        return current.value();
+    }
+
+    private synchronized String loadInitial() {
+        if (entry == null) {
+            try {
+                entry = loaded(loader.call());
+            } catch (Exception e) {
+                System.err.println("Warning: Could not resolve secret: " + e.getMessage());
+                long now = clock.getAsLong();
+                entry = new Entry(null, now + retryAfterNanos, now + ttlNanos);
+            }
+        }
+        return entry.value();
+    }
+
+    private synchronized String loadExpired() {
+        Entry current = entry;
+        if (clock.getAsLong() - current.expiresAt() >= 0) {
+            try {
+                current = loaded(loader.call());
+            } catch (Exception e) {
+                throw new IllegalStateException("Secret expired and could not be resolved: " + e.getMessage(), e);
+            }
+            entry = current;
+        }
+        return current.value();
+    }
+
+    private void refresh(Entry previous) {
+        try {
+            Entry next;
+            try {
+                next = loaded(loader.call());
+            } catch (Exception e) {
+                System.err.println("Warning: Could not resolve secret: " + e.getMessage());
+                // The value still expires with the previous load
+                next = new Entry(previous.value(), clock.getAsLong() + retryAfterNanos, previous.expiresAt());
+            }
+            synchronized (this) {
+                // A synchronous load after expiry may have replaced the entry meanwhile
+                if (entry == previous) {
+                    entry = next;
+                }
+            }
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private Entry loaded(String value) {
+        long now = clock.getAsLong();
+        return new Entry(value, now + refreshAfterNanos, now + ttlNanos);
+    }
+}
@@ -0,0 +1,199 @@
+package com.aimitjava.config;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Computes the diff between published snapshots and delivers it to subscribed listeners.
+ * Reloads within the debounce period are merged into one diff, and every listener receives
+ * at most one event per dispatch, containing only the keys it subscribed to. All notifiers share
+ * one daemon thread for the debounce timers. Events for the same listener are delivered one
+ * after another in the order of the reloads, even if the executor runs tasks concurrently.
+ */
+final class ChangeNotifier {
+    private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(200);
+    private static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("config-change").start(task);
+
+    private final Map<String, List<Subscriber>> keySubscribers = new ConcurrentHashMap<>();
+    private final List<Subscriber> prefixSubscribers = new CopyOnWriteArrayList<>();
+    private volatile Executor executor = VIRTUAL_THREADS;
+    private volatile Duration debounce = DEFAULT_DEBOUNCE;
+
+    // Guarded by this
+    private ScheduledFuture<?> pending;
+    private ConfigSnapshot baseline;
+    private ConfigSnapshot latest;
+
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    void setDebounce(Duration debounce) {
+        this.debounce = debounce;
+    }
+
+    ConfigSubscription subscribeToKey(String key, ConfigChangeListener listener) {
+        Subscriber subscriber = new Subscriber(key, listener);
+        keySubscribers.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(subscriber);
+        return () -> {
+            List<Subscriber> subscribers = keySubscribers.get(key);
+            if (subscribers != null) {
+                subscribers.remove(subscriber);
+            }
+        };
+    }
+
+    ConfigSubscription subscribeToPrefix(String prefix, ConfigChangeListener listener) {
+        Subscriber subscriber = new Subscriber(prefix, listener);
+        prefixSubscribers.add(subscriber);
+        return () -> prefixSubscribers.remove(subscriber);
+    }
+
+    private boolean hasSubscribers() {
+        if (!prefixSubscribers.isEmpty()) {
+            return true;
+        }
+        for (List<Subscriber> subscribers : keySubscribers.values()) {
+            if (!subscribers.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records a newly published snapshot and (re)starts the debounce timer.
+     */
+    synchronized void published(ConfigSnapshot previous, ConfigSnapshot current) {
+        if (!hasSubscribers()) {
+            return;
+        }
+        if (baseline == null) {
+            baseline = previous;
+        }
+        latest = current;
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = Scheduler.INSTANCE.schedule(this::dispatch, debounce.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void dispatch() {
+        ConfigSnapshot from;
+        ConfigSnapshot to;
+        synchronized (this) {
+            from = baseline;
+            to = latest;
+            baseline = null;
+            latest = null;
+            pending = null;
+        }
+        if (from == null) {
+            return;
+        }
+
+        Map<Subscriber, Map<String, ConfigChangeEvent.Change>> events = new LinkedHashMap<>();
+        diff(from, to).forEach((key, change) -> {
+            for (Subscriber subscriber : keySubscribers.getOrDefault(key, List.of())) {
+                events.computeIfAbsent(subscriber, s -> new LinkedHashMap<>()).put(key, change);
+            }
+            for (Subscriber subscriber : prefixSubscribers) {
+                if (key.startsWith(subscriber.filter())) {
+                    events.computeIfAbsent(subscriber, s -> new LinkedHashMap<>()).put(key, change);
+                }
+            }
+        });
+
+        Executor target = executor;
+        events.forEach((subscriber, changes) -> subscriber.enqueue(new ConfigChangeEvent(changes), target));
+    }
+
+    private static Map<String, ConfigChangeEvent.Change> diff(ConfigSnapshot from, ConfigSnapshot to) {
+        Set<String> keys = new HashSet<>(from.keys());
+        keys.addAll(to.keys());
+
+        Map<String, ConfigChangeEvent.Change> changes = new LinkedHashMap<>();
+        for (String key : keys) {
+            String oldValue = from.resolve(key);
+            String newValue = to.resolve(key);
+            if (oldValue == null ? newValue != null : !oldValue.equals(newValue)) {
+                changes.put(key, new ConfigChangeEvent.Change(oldValue, newValue));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Holds the debounce scheduler shared by all notifiers; the thread is created on first use.
+     */
+    private static final class Scheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+                task -> Thread.ofPlatform().daemon().name("config-change-debounce").unstarted(task));
+    }
+
+    private static final class Subscriber {
+        private final String filter;
+        private final ConfigChangeListener listener;
+        private final Queue<ConfigChangeEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(String filter, ConfigChangeListener listener) {
+            this.filter = filter;
+            this.listener = listener;
+        }
+
+        String filter() {
+            return filter;
+        }
+
+        /**
+         * Queues the event and starts a drain task unless one is already running, so that at most
+         * one task per subscriber calls the listener at a time.
+         */
+        void enqueue(ConfigChangeEvent event, Executor target) {
+            queue.add(event);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    target.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    System.err.println("Warning: Configuration change executor rejected notification: " + e.getMessage());
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                ConfigChangeEvent event;
+                while ((event = queue.poll()) != null) {
+                    deliver(event);
+                }
+                draining.set(false);
+                // An event queued after the last poll but before the reset found draining still set
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void deliver(ConfigChangeEvent event) {
+            try {
+                listener.onChange(event);
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Configuration change listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.aimitjava.config;
+
+/**
+ * Binds configuration values to a typed object. Implementations are generated for
+ * types annotated with {@link ConfigBinding}.
+ *
+ * @param <T> The bound type
+ */
+@FunctionalInterface
+public interface ConfigBinder<T> {
+
+    /**
+     * Reads all properties of the bound type from a configuration.
+     *
+     * @param configuration The configuration to read from
+     * @return A new instance holding the current values
+     * @throws IllegalStateException if a primitive property without default is missing or invalid
+     */
+    T bind(Configuration configuration);
+}
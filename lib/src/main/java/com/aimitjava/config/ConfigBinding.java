@@ -0,0 +1,34 @@
+package com.aimitjava.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface or record to be bound to configuration values.
+ * The annotation processor in the {@code config-processor} artifact generates a
+ * {@code <Name>Binder} class next to the annotated type that reads all properties through
+ * precomputed {@link ConfigKey}s, without reflection at runtime.
+ *
+ * <pre>{@code
+ * @ConfigBinding(prefix = "openai")
+ * public record OpenAiSettings(String modelName, @ConfigProperty(defaultValue = "0.7") double temperature) {}
+ *
+ * OpenAiSettings settings = new OpenAiSettingsBinder().bind(Configuration.getInstance());
+ * }</pre>
+ *
+ * Supported property types are {@code String}, {@code int}, {@code long}, {@code double},
+ * {@code boolean} and their wrapper types.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface ConfigBinding {
+
+    /**
+     * @return Prefix for the derived property keys, e.g. {@code "openai"} for {@code openai.model.name}
+     */
+    String prefix() default "";
+}
@@ -0,0 +1,71 @@
+package com.aimitjava.config;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched diff of one reload, restricted to the keys a listener subscribed to.
+ * Values are the effective values, i.e. with environment variable precedence applied.
+ */
+public final class ConfigChangeEvent {
+    private final Map<String, Change> changes;
+
+    ConfigChangeEvent(Map<String, Change> changes) {
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * @return The keys whose values changed
+     */
+    public Set<String> getChangedKeys() {
+        return changes.keySet();
+    }
+
+    /**
+     * @return All changes by key
+     */
+    public Map<String, Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @param key The property key
+     * @return true if the value of the key changed
+     */
+    public boolean isChanged(String key) {
+        return changes.containsKey(key);
+    }
+
+    /**
+     * @param key The property key
+     * @return The value before the reload, or null if the key was not set or did not change
+     */
+    public String getOldValue(String key) {
+        Change change = changes.get(key);
+        return change != null ? change.oldValue() : null;
+    }
+
+    /**
+     * @param key The property key
+     * @return The value after the reload, or null if the key was removed or did not change
+     */
+    public String getNewValue(String key) {
+        Change change = changes.get(key);
+        return change != null ? change.newValue() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigChangeEvent" + changes;
+    }
+
+    /**
+     * A single changed value; either side is null if the key was added or removed.
+     *
+     * @param oldValue The value before the reload
+     * @param newValue The value after the reload
+     */
+    public record Change(String oldValue, String newValue) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.aimitjava.config;
+
+/**
+ * Receives the changes of a reload that affect the keys a listener subscribed to.
+ *
+ * @see Configuration#subscribe(String, ConfigChangeListener)
+ * @see Configuration#subscribeToPrefix(String, ConfigChangeListener)
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+    /**
+     * Called once per (debounced) reload with all relevant changes.
+     *
+     * @param event The changed keys with their old and new values
+     */
+    void onChange(ConfigChangeEvent event);
+}
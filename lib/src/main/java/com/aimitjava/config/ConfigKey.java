@@ -0,0 +1,341 @@
+package com.aimitjava.config;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Typed, reusable handle for a configuration key.
+ * Every key owns a fixed slot index; each configuration snapshot stores the converted value
+ * of a key in that slot on first access, so later reads are a plain array read.
+ * Keys should be created once and kept, e.g. in a {@code static final} field. Lookups by a
+ * String name do not create keys, so arbitrary names cost no slots.
+ *
+ * @param <T> The type of the converted value
+ */
+public final class ConfigKey<T> {
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+    private static final AtomicInteger NEXT_TYPE_ID = new AtomicInteger();
+
+    static final Type<String> STRING = new Type<>(Function.identity());
+    static final Type<Integer> INT = new Type<>(Integer::valueOf);
+    static final Type<Long> LONG = new Type<>(Long::valueOf);
+    static final Type<Double> DOUBLE = new Type<>(Double::valueOf);
+    static final Type<Boolean> BOOLEAN = new Type<>(Boolean::valueOf);
+    static final Type<Duration> DURATION = new Type<>(ConfigKey::parseDuration);
+    static final Type<Long> BYTE_SIZE = new Type<>(ConfigKey::parseByteSize);
+    static final Type<List<String>> LIST = new Type<>(ConfigKey::parseList);
+    static final Type<Map<String, String>> MAP = new Type<>(ConfigKey::parseMap);
+    static final Type<int[]> INT_ARRAY = new Type<>(value -> parseList(value).stream().mapToInt(Integer::parseInt).toArray());
+    static final Type<long[]> LONG_ARRAY = new Type<>(value -> parseList(value).stream().mapToLong(Long::parseLong).toArray());
+    static final int TYPE_COUNT = NEXT_TYPE_ID.get();
+
+    private final String name;
+    private final Function<String, T> converter;
+    private final int index;
+
+    private ConfigKey(String name, Function<String, T> converter) {
+        this.name = name;
+        this.converter = converter;
+        this.index = NEXT_INDEX.getAndIncrement();
+    }
+
+    /**
+     * Creates a key with a custom converter. Unlike the predefined types, such keys are not
+     * shared, so every call allocates a new slot; create them once rather than per lookup.
+     *
+     * @param name The property key
+     * @param converter Converts the raw value; returns null or throws an
+     *                  {@link IllegalArgumentException} if the value is invalid
+     * @return A new key
+     */
+    public static <T> ConfigKey<T> of(String name, Function<String, T> converter) {
+        return new ConfigKey<>(name, converter);
+    }
+
+    /**
+     * @param name The property key
+     * @return The shared string key for the name
+     */
+    public static ConfigKey<String> ofString(String name) {
+        return STRING.key(name);
+    }
+
+    /**
+     * @param name The property key
+     * @return The shared integer key for the name
+     */
+    public static ConfigKey<Integer> ofInt(String name) {
+        return INT.key(name);
+    }
+
+    /**
+     * @param name The property key
+     * @return The shared long key for the name
+     */
+    public static ConfigKey<Long> ofLong(String name) {
+        return LONG.key(name);
+    }
+
+    /**
+     * @param name The property key
+     * @return The shared double key for the name
+     */
+    public static ConfigKey<Double> ofDouble(String name) {
+        return DOUBLE.key(name);
+    }
+
+    /**
+     * @param name The property key
+     * @return The shared boolean key for the name
+     */
+    public static ConfigKey<Boolean> ofBoolean(String name) {
+        return BOOLEAN.key(name);
+    }
+
+    /**
+     * The value is an ISO-8601 duration such as {@code PT30S}, a number with one of the units
+     * {@code ms}, {@code s}, {@code m}, {@code h} or {@code d} such as {@code 500ms}, or a plain
+     * number of seconds.
+     *
+     * @param name The property key
+     * @return The shared duration key for the name
+     */
+    public static ConfigKey<Duration> ofDuration(String name) {
+        return DURATION.key(name);
+    }
+
+    /**
+     * The value is a number of bytes, optionally followed by one of the units {@code B},
+     * {@code KB}, {@code MB}, {@code GB} or {@code TB} (multiples of 1024, case-insensitive),
+     * such as {@code 64KB}.
+     *
+     * @param name The property key
+     * @return The shared byte size key for the name, converting to a number of bytes
+     */
+    public static ConfigKey<Long> ofByteSize(String name) {
+        return BYTE_SIZE.key(name);
+    }
+
+    /**
+     * The value is a comma-separated list such as {@code a, b, c}. Elements are trimmed and
+     * empty elements are skipped.
+     *
+     * @param name The property key
+     * @return The shared list key for the name, converting to an unmodifiable list
+     */
+    public static ConfigKey<List<String>> ofList(String name) {
+        return LIST.key(name);
+    }
+
+    /**
+     * The value is a comma-separated list of {@code key=value} entries such as
+     * {@code gpt-4o=128000, gpt-4o-mini=16000}.
+     *
+     * @param name The property key
+     * @return The shared map key for the name, converting to an unmodifiable map in entry order
+     */
+    public static ConfigKey<Map<String, String>> ofMap(String name) {
+        return MAP.key(name);
+    }
+
+    /**
+     * The value is a comma-separated list of integers. The converted array is shared by all
+     * readers of a snapshot and must not be modified.
+     *
+     * @param name The property key
+     * @return The shared integer array key for the name
+     */
+    public static ConfigKey<int[]> ofIntArray(String name) {
+        return INT_ARRAY.key(name);
+    }
+
+    /**
+     * The value is a comma-separated list of longs. The converted array is shared by all
+     * readers of a snapshot and must not be modified.
+     *
+     * @param name The property key
+     * @return The shared long array key for the name
+     */
+    public static ConfigKey<long[]> ofLongArray(String name) {
+        return LONG_ARRAY.key(name);
+    }
+
+    /**
+     * @param value A duration as accepted by {@link #ofDuration(String)}
+     * @throws IllegalArgumentException if the value is not a duration
+     */
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim();
+        int sign = trimmed.startsWith("-") ? 1 : 0;
+        int unit = sign;
+        while (unit < trimmed.length() && Character.isDigit(trimmed.charAt(unit))) {
+            unit++;
+        }
+        if (unit == trimmed.length()) {
+            return Duration.ofSeconds(Long.parseLong(trimmed));
+        }
+        if (unit == sign) {
+            try {
+                return Duration.parse(trimmed);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+        long amount = Long.parseLong(trimmed.substring(0, unit));
+        try {
+            return switch (trimmed.substring(unit).trim().toLowerCase(Locale.ROOT)) {
+                case "ms" -> Duration.ofMillis(amount);
+                case "s" -> Duration.ofSeconds(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                case "h" -> Duration.ofHours(amount);
+                case "d" -> Duration.ofDays(amount);
+                default -> throw new IllegalArgumentException("Unknown duration unit: " + value);
+            };
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Duration too large: " + value, e);
+        }
+    }
+
+    private static Long parseByteSize(String value) {
+        String trimmed = value.trim();
+        int unit = 0;
+        while (unit < trimmed.length() && Character.isDigit(trimmed.charAt(unit))) {
+            unit++;
+        }
+        if (unit == 0) {
+            throw new IllegalArgumentException("Not a byte size: " + value);
+        }
+        long amount = Long.parseLong(trimmed.substring(0, unit));
+        int shift = switch (trimmed.substring(unit).trim().toUpperCase(Locale.ROOT)) {
+            case "", "B" -> 0;
+            case "KB" -> 10;
+            case "MB" -> 20;
+            case "GB" -> 30;
+            case "TB" -> 40;
+            default -> throw new IllegalArgumentException("Unknown byte size unit: " + value);
+        };
+        if (amount > Long.MAX_VALUE >> shift) {
+            throw new IllegalArgumentException("Byte size too large: " + value);
+        }
+        return amount << shift;
+    }
+
+    private static List<String> parseList(String value) {
+        List<String> elements = new ArrayList<>();
+        for (String element : value.split(",")) {
+            String trimmed = element.trim();
+            if (!trimmed.isEmpty()) {
+                elements.add(trimmed);
+            }
+        }
+        return List.copyOf(elements);
+    }
+
+    private static Map<String, String> parseMap(String value) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (String entry : parseList(value)) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Not a key=value entry: " + entry);
+            }
+            entries.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * @return The property key
+     */
+    public String getName() {
+        return name;
+    }
+
+    int index() {
+        return index;
+    }
+
+    /**
+     * Converts a raw value.
+     *
+     * @return The converted value, or null if the raw value is null or invalid
+     */
+    T convert(String value) {
+        return convert(converter, value);
+    }
+
+    private static <T> T convert(Function<String, T> converter, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return converter.apply(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigKey[" + name + "]";
+    }
+
+    /**
+     * One of the predefined value types. Its keys are shared by name; only keys created through
+     * the factory methods own a slot. The typed String getters of {@link Configuration} use an
+     * existing key if there is one and otherwise convert the value without creating a key, so
+     * ad-hoc names do not allocate slots.
+     *
+     * @param <T> The type of the converted value
+     */
+    static final class Type<T> {
+        private final int id;
+        private final Function<String, T> converter;
+        private final Map<String, ConfigKey<T>> keys = new ConcurrentHashMap<>();
+
+        private Type(Function<String, T> converter) {
+            this.id = NEXT_TYPE_ID.getAndIncrement();
+            this.converter = converter;
+        }
+
+        /**
+         * @return The index of this type among the predefined types, less than {@link #TYPE_COUNT}
+         */
+        int id() {
+            return id;
+        }
+
+        /**
+         * @return The shared key for the name, created on first use
+         */
+        ConfigKey<T> key(String name) {
+            ConfigKey<T> key = keys.get(name);
+            if (key == null) {
+                key = keys.computeIfAbsent(name, n -> new ConfigKey<>(n, converter));
+            }
+            return key;
+        }
+
+        /**
+         * @return The shared key for the name, or null if none has been created
+         */
+        ConfigKey<T> existingKey(String name) {
+            return keys.get(name);
+        }
+
+        /**
+         * @return The converted value, or null if the raw value is null or invalid
+         */
+        T convert(String value) {
+            return ConfigKey.convert(converter, value);
+        }
+    }
+}
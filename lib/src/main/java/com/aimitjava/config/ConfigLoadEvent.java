@@ -0,0 +1,39 @@
+package com.aimitjava.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for each load or reload of a {@link Configuration}. Like all JFR events it costs
+ * nothing unless a recording with this event enabled is running.
+ */
+@Name("com.aimitjava.config.Load")
+@Label("Configuration Load")
+@Category("Configuration")
+@Description("Loading or reloading all sources of a configuration")
+final class ConfigLoadEvent extends Event {
+    @Label("Sources")
+    String sources;
+
+    @Label("Reload")
+    boolean reload;
+
+    @Label("Loaded Sources")
+    int loadedSources;
+
+    @Label("Missing Sources")
+    int missingSources;
+
+    @Label("Failed Sources")
+    int failedSources;
+
+    @Label("Entries")
+    int entries;
+
+    @Label("Published")
+    @Description("False if a reload was aborted and the previous values were kept")
+    boolean published;
+}
@@ -0,0 +1,35 @@
+package com.aimitjava.config;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Timings of the most recent (re)load of a {@link Configuration}.
+ *
+ * @param sources One entry per source, in order of precedence
+ * @param total Wall-clock time for loading all sources
+ */
+public record ConfigLoadReport(List<SourceLoad> sources, Duration total) {
+
+    public ConfigLoadReport {
+        sources = List.copyOf(sources);
+    }
+
+    /**
+     * Outcome of loading a single source.
+     */
+    public enum Status {
+        LOADED,
+        MISSING,
+        FAILED
+    }
+
+    /**
+     * @param source The name of the source
+     * @param status Whether the source was loaded
+     * @param duration Time spent loading the source
+     * @param entries The number of values read
+     */
+    public record SourceLoad(String source, Status status, Duration duration, int entries) {
+    }
+}
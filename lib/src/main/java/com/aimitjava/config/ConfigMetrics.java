@@ -0,0 +1,107 @@
+package com.aimitjava.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lookup counters of a {@link Configuration}, enabled with {@link Configuration#enableMetrics()}.
+ * Counters are striped per key ({@link LongAdder}), so concurrent lookups of the same key do not
+ * contend. While metrics are disabled, lookups only pay for one null check.
+ */
+public final class ConfigMetrics {
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * The counters of one key.
+     *
+     * @param key The property key
+     * @param lookups All lookups of the key, including {@link Configuration#hasProperty(String)}
+     * @param environmentHits Lookups answered by an environment variable
+     * @param sourceHits Lookups answered by a {@link ConfigSource}, e.g. a properties file
+     * @param misses Lookups of a key that is not set
+     * @param invalidValues Lookups of a value that could not be converted to the requested type
+     * @param defaultsUsed Lookups that returned the caller's default value
+     */
+    public record KeyMetrics(String key, long lookups, long environmentHits, long sourceHits, long misses,
+                             long invalidValues, long defaultsUsed) {
+    }
+
+    private static final class Counters {
+        final LongAdder environmentHits = new LongAdder();
+        final LongAdder sourceHits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder invalidValues = new LongAdder();
+        final LongAdder defaultsUsed = new LongAdder();
+    }
+
+    private Counters countersOf(String key) {
+        Counters current = counters.get(key);
+        return current != null ? current : counters.computeIfAbsent(key, k -> new Counters());
+    }
+
+    void recordLookup(ConfigSnapshot snapshot, String key, boolean converted) {
+        Counters current = countersOf(key);
+        if (snapshot.isFromEnvironment(key)) {
+            current.environmentHits.increment();
+        } else if (snapshot.sourceValue(key) != null) {
+            current.sourceHits.increment();
+        } else {
+            current.misses.increment();
+            return;
+        }
+        if (!converted) {
+            current.invalidValues.increment();
+        }
+    }
+
+    void recordDefault(String key) {
+        countersOf(key).defaultsUsed.increment();
+    }
+
+    /**
+     * @param key The property key
+     * @return The counters of the key; all zero if it was never looked up
+     */
+    public KeyMetrics getKeyMetrics(String key) {
+        Counters current = counters.get(key);
+        return current != null ? toMetrics(key, current) : new KeyMetrics(key, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * @return The counters of all keys looked up so far
+     */
+    public List<KeyMetrics> getAllKeyMetrics() {
+        List<KeyMetrics> all = new ArrayList<>(counters.size());
+        counters.forEach((key, current) -> all.add(toMetrics(key, current)));
+        return all;
+    }
+
+    /**
+     * @param limit The maximum number of keys
+     * @return The most frequently looked up keys, most frequent first
+     */
+    public List<KeyMetrics> getHotKeys(int limit) {
+        List<KeyMetrics> all = getAllKeyMetrics();
+        all.sort(Comparator.comparingLong(KeyMetrics::lookups).reversed());
+        return all.subList(0, Math.min(limit, all.size()));
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+        counters.clear();
+    }
+
+    private static KeyMetrics toMetrics(String key, Counters current) {
+        long environmentHits = current.environmentHits.sum();
+        long sourceHits = current.sourceHits.sum();
+        long misses = current.misses.sum();
+        return new KeyMetrics(key, environmentHits + sourceHits + misses, environmentHits, sourceHits, misses,
+                current.invalidValues.sum(), current.defaultsUsed.sum());
+    }
+}
@@ -0,0 +1,201 @@
+package com.aimitjava.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A view of a shared {@link Configuration} with a few values overridden, e.g. for one tenant.
+ * An overlay stores only its overrides; all other keys are read from the base configuration and
+ * follow its reloads. Overlays are immutable: deriving a changed overlay copies the overrides,
+ * never the base values, so memory grows with the number of overrides rather than with the
+ * number of keys.
+ * <p>
+ * Overrides take precedence over the effective value of the base configuration, including
+ * environment variables. Only an active {@link ConfigScope} wins over them, as over all sources.
+ * The overlay of a {@link LangchainConfiguration} is a {@link LangchainConfigOverlay}.
+ */
+public class ConfigOverlay {
+    private static final Object MISSING = new Object();
+
+    private final Configuration base;
+    private final Map<String, String> overrides;
+    // Converted values of overridden keys by ConfigKey or TypedName, copied on write; most overlays
+    // convert only a few keys
+    private volatile Map<Object, Object> converted = Map.of();
+
+    ConfigOverlay(Configuration base, Map<String, String> overrides) {
+        this.base = base;
+        this.overrides = Map.copyOf(overrides);
+    }
+
+    /**
+     * Derives an overlay with additional overrides. Values of this overlay not overridden again
+     * are kept.
+     *
+     * @param changes The values to override
+     * @return A new overlay on the same base configuration
+     */
+    public ConfigOverlay withOverrides(Map<String, String> changes) {
+        Map<String, String> merged = new HashMap<>(overrides);
+        merged.putAll(changes);
+        return base.withOverrides(merged);
+    }
+
+    /**
+     * Derives an overlay without the override of a key, so that the key is read from the base
+     * configuration again.
+     *
+     * @param key The property key
+     * @return A new overlay, or this overlay if the key is not overridden
+     */
+    public ConfigOverlay withoutOverride(String key) {
+        if (!overrides.containsKey(key)) {
+            return this;
+        }
+        Map<String, String> remaining = new HashMap<>(overrides);
+        remaining.remove(key);
+        return base.withOverrides(remaining);
+    }
+
+    /**
+     * @return The overridden values
+     */
+    public Map<String, String> getOverrides() {
+        return overrides;
+    }
+
+    /**
+     * @return The shared base configuration
+     */
+    public Configuration getBase() {
+        return base;
+    }
+
+    /**
+     * Gets a property value, overridden or from the base configuration.
+     *
+     * @param key The property key
+     * @return The property value or null if not found
+     */
+    public String getProperty(String key) {
+        String value = override(key);
+        return value != null ? value : base.getProperty(key);
+    }
+
+    /**
+     * Gets a property value with a default fallback.
+     *
+     * @param key The property key
+     * @param defaultValue The default value if property is not found
+     * @return The property value or defaultValue if not found
+     */
+    public String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Gets the converted value of a key. Overridden values are converted once per overlay,
+     * other values are read from the base configuration's cache.
+     *
+     * @param key The key handle
+     * @return The value, or null if not found or not a valid value for the key's type
+     */
+    public <T> T get(ConfigKey<T> key) {
+        String raw = override(key.getName());
+        if (raw == null) {
+            return base.get(key);
+        }
+        return converted(key, raw, key::convert);
+    }
+
+    private <T> T get(String key, ConfigKey.Type<T> type, T defaultValue) {
+        String raw = override(key);
+        T value = raw == null ? base.get(key, type) : converted(new TypedName(key, type), raw, type::convert);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * @return The overridden value, or null if the key is not overridden or an active scope
+     *         overrides it, in which case the base configuration returns the scoped value
+     */
+    String override(String key) {
+        String value = overrides.get(key);
+        return value != null && ConfigScope.lookup(key) == null ? value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T converted(Object cacheKey, String raw, Function<String, T> converter) {
+        Map<Object, Object> current = converted;
+        Object value = current.get(cacheKey);
+        if (value == null) {
+            T convertedValue = converter.apply(raw);
+            value = convertedValue != null ? convertedValue : MISSING;
+            Map<Object, Object> next = new HashMap<>(current);
+            next.put(cacheKey, value);
+            // A racing conversion of another key may be lost and is simply repeated later
+            converted = next;
+        }
+        return value == MISSING ? null : (T) value;
+    }
+
+    /**
+     * Gets the converted value of a key with a default fallback.
+     *
+     * @param key The key handle
+     * @param defaultValue The default value if the key is not found or its value is invalid
+     * @return The value or defaultValue
+     */
+    public <T> T get(ConfigKey<T> key, T defaultValue) {
+        T value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Gets an integer property value.
+     *
+     * @param key The property key
+     * @param defaultValue The default value if property is not found or not a valid integer
+     * @return The property value as an integer or defaultValue
+     */
+    public int getIntProperty(String key, int defaultValue) {
+        return get(key, ConfigKey.INT, defaultValue);
+    }
+
+    /**
+     * Gets a double property value.
+     *
+     * @param key The property key
+     * @param defaultValue The default value if property is not found or not a valid double
+     * @return The property value as a double or defaultValue
+     */
+    public double getDoubleProperty(String key, double defaultValue) {
+        return get(key, ConfigKey.DOUBLE, defaultValue);
+    }
+
+    /**
+     * Gets a boolean property value.
+     *
+     * @param key The property key
+     * @param defaultValue The default value if property is not found
+     * @return The property value as a boolean or defaultValue
+     */
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        return get(key, ConfigKey.BOOLEAN, defaultValue);
+    }
+
+    /**
+     * Checks if a property exists.
+     *
+     * @param key The property key
+     * @return true if the property is overridden or exists in the base configuration
+     */
+    public boolean hasProperty(String key) {
+        return overrides.containsKey(key) || base.hasProperty(key);
+    }
+
+    // Caches the conversion of an override read through a typed String getter, without creating a key
+    private record TypedName(String name, ConfigKey.Type<?> type) {
+    }
+}
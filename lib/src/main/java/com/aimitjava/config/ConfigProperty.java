@@ -0,0 +1,29 @@
+package com.aimitjava.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Customizes the binding of a single property of a {@link ConfigBinding} type.
+ * Without this annotation, the key is derived from the prefix and the camel-case name,
+ * e.g. {@code modelName} becomes {@code <prefix>.model.name}.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.METHOD, ElementType.RECORD_COMPONENT})
+public @interface ConfigProperty {
+
+    /**
+     * @return The full property key; empty to derive it from the prefix and the name
+     */
+    String name() default "";
+
+    /**
+     * @return The default value, checked at compile time; empty for none. Binding a property
+     *         without a default that is missing or invalid yields null, or fails for primitives.
+     */
+    String defaultValue() default "";
+}
@@ -0,0 +1,148 @@
+package com.aimitjava.config;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares the parsed values of properties files between all configurations created for the same
+ * file, e.g. by {@link Configuration#fromFile(String)} or the {@link LangchainConfiguration}
+ * constructors. Creating another configuration for a file that has already been read does not
+ * read or parse it again, and all of them share one unmodifiable copy of the parsed keys and values.
+ * Each configuration still gets its own {@link Configuration#properties} table referencing them, so
+ * a subclass modifying its table never affects other configurations. The values are copied into
+ * that table only when a subclass modifies it or reads it as a whole, so constructing another
+ * configuration does not copy the file's values.
+ * <p>
+ * A file on the file system is read again when its modification time or size has changed, and
+ * {@link Configuration#reload()} always reads it again. Resources inside a jar are read once.
+ */
+public final class ConfigRegistry {
+    private static final Map<Key, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static volatile Retention retention = Retention.STRONG;
+
+    /**
+     * How long shared values are kept.
+     */
+    public enum Retention {
+        /** Until invalidated. */
+        STRONG,
+        /** Until invalidated or the garbage collector needs the memory. */
+        SOFT,
+        /** Until invalidated or no configuration uses the values anymore. */
+        WEAK
+    }
+
+    private record Key(ClassLoader classLoader, String name) {
+    }
+
+    /**
+     * @param values Returns the values, or null once soft or weak values have been collected
+     * @param stamp The state of the file the values were read from, or null for a resource in a jar
+     */
+    private record Entry(Supplier<Map<String, String>> values, FileStamp stamp) {
+    }
+
+    private record FileStamp(FileTime lastModified, long size) {
+        static FileStamp of(Path file) throws IOException {
+            return new FileStamp(Files.getLastModifiedTime(file), Files.size(file));
+        }
+    }
+
+    /**
+     * Reads the values of a properties file.
+     */
+    @FunctionalInterface
+    interface Reader {
+        Map<String, String> read() throws IOException;
+    }
+
+    private ConfigRegistry() {
+    }
+
+    /**
+     * Gets the shared values of a properties file, reading them if they are not registered or the
+     * file has changed since.
+     *
+     * @param classLoader The class loader the file is looked up with
+     * @param name The resource name or file path
+     * @param file The file on the file system, or null if it cannot change
+     * @param reader Reads the values
+     * @return The values, or null if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    static Map<String, String> shared(ClassLoader classLoader, String name, Path file, Reader reader) throws IOException {
+        Key key = new Key(classLoader, name);
+        FileStamp stamp;
+        try {
+            stamp = file != null ? FileStamp.of(file) : null;
+        } catch (IOException e) {
+            // Removed in the meantime; let the reader decide
+            ENTRIES.remove(key);
+            return reader.read();
+        }
+        Entry cached = ENTRIES.get(key);
+        if (cached != null && Objects.equals(cached.stamp(), stamp)) {
+            Map<String, String> values = cached.values().get();
+            if (values != null) {
+                return values;
+            }
+        }
+        Map<String, String> values = reader.read();
+        if (values == null) {
+            ENTRIES.remove(key);
+        } else {
+            ENTRIES.put(key, new Entry(retain(values), stamp));
+        }
+        return values;
+    }
+
+    private static Supplier<Map<String, String>> retain(Map<String, String> values) {
+        return switch (retention) {
+            case STRONG -> () -> values;
+            case SOFT -> new SoftReference<>(values)::get;
+            case WEAK -> new WeakReference<>(values)::get;
+        };
+    }
+
+    /**
+     * Forgets the values of a file, so that the next configuration created for it reads it again.
+     * Existing configurations keep their values until they are reloaded.
+     *
+     * @param name The resource name or file path
+     */
+    public static void invalidate(String name) {
+        ENTRIES.keySet().removeIf(key -> key.name().equals(name));
+    }
+
+    /**
+     * Forgets the values of all files.
+     */
+    public static void invalidateAll() {
+        ENTRIES.clear();
+    }
+
+    /**
+     * Sets how long values read from now on are kept. Defaults to {@link Retention#STRONG}.
+     *
+     * @param retention The retention
+     */
+    public static void setRetention(Retention retention) {
+        ConfigRegistry.retention = Objects.requireNonNull(retention);
+    }
+
+    /**
+     * @return The number of files whose values are currently shared
+     */
+    public static int size() {
+        ENTRIES.values().removeIf(entry -> entry.values().get() == null);
+        return ENTRIES.size();
+    }
+}
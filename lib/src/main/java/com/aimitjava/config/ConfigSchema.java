@@ -0,0 +1,185 @@
+package com.aimitjava.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Declares the keys a configuration must provide, their types, defaults and valid ranges, e.g.
+ * <pre>{@code
+ * ConfigSchema schema = ConfigSchema.builder()
+ *         .required(ConfigKey.ofString("openai.model.name"))
+ *         .optional(ConfigKey.ofDouble("openai.temperature"), 0.7)
+ *         .range(ConfigKey.ofDouble("openai.temperature"), 0.0, 2.0)
+ *         .build();
+ * configuration.setSchema(schema);
+ * }</pre>
+ * A schema is checked once per load, with environment variable precedence. All violations are
+ * reported together in one {@link ConfigurationException}; a reload violating the schema keeps
+ * the previous values. Validated values and defaults are stored in the snapshot, so reading a
+ * declared key through {@link Configuration#get(ConfigKey)} or the typed getters neither parses
+ * nor falls back to a default afterwards.
+ */
+public final class ConfigSchema {
+    private final List<Entry<?>> entries;
+
+    private ConfigSchema(List<Entry<?>> entries) {
+        this.entries = List.copyOf(entries);
+    }
+
+    /**
+     * @return A builder for a new schema
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The declared keys, in declaration order
+     */
+    public List<ConfigKey<?>> getKeys() {
+        List<ConfigKey<?>> keys = new ArrayList<>(entries.size());
+        for (Entry<?> entry : entries) {
+            keys.add(entry.key());
+        }
+        return keys;
+    }
+
+    /**
+     * Checks a snapshot against the schema and stores the validated values and defaults in it.
+     *
+     * @throws ConfigurationException listing all violations
+     */
+    void validate(ConfigSnapshot snapshot) {
+        List<String> violations = new ArrayList<>();
+        for (Entry<?> entry : entries) {
+            entry.validate(snapshot, violations);
+        }
+        if (!violations.isEmpty()) {
+            throw new ConfigurationException("Configuration violates schema", violations);
+        }
+    }
+
+    private record Rule<T>(Predicate<? super T> test, String description) {
+    }
+
+    private record Entry<T>(ConfigKey<T> key, boolean required, T defaultValue, List<Rule<T>> rules) {
+
+        void validate(ConfigSnapshot snapshot, List<String> violations) {
+            String name = key.getName();
+            String raw = snapshot.resolve(name);
+            if (raw == null) {
+                if (required) {
+                    violations.add(name + " is required");
+                } else if (defaultValue != null) {
+                    snapshot.preset(key, defaultValue);
+                }
+                return;
+            }
+            T value = snapshot.get(key);
+            if (value == null) {
+                violations.add(name + " is invalid: " + raw);
+                return;
+            }
+            for (Rule<T> rule : rules) {
+                if (!rule.test().test(value)) {
+                    violations.add(name + " " + rule.description() + ": " + raw);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the declarations of a schema.
+     */
+    public static final class Builder {
+        // The entries by key; ConfigKey has identity equality, shared keys are interned by name and type
+        private final Map<ConfigKey<?>, Entry<?>> entries = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Declares a key that must be set to a valid value.
+         *
+         * @param key The key
+         * @return This builder
+         */
+        public <T> Builder required(ConfigKey<T> key) {
+            return declare(key, true, null);
+        }
+
+        /**
+         * Declares a key that may be missing, but must be valid if set.
+         *
+         * @param key The key
+         * @return This builder
+         */
+        public <T> Builder optional(ConfigKey<T> key) {
+            return declare(key, false, null);
+        }
+
+        /**
+         * Declares a key that may be missing, but must be valid if set.
+         *
+         * @param key The key
+         * @param defaultValue The value read if the key is missing; not checked against the rules
+         * @return This builder
+         */
+        public <T> Builder optional(ConfigKey<T> key, T defaultValue) {
+            return declare(key, false, defaultValue);
+        }
+
+        /**
+         * Restricts a declared key to a closed range.
+         *
+         * @param key The declared key
+         * @param min The smallest valid value
+         * @param max The largest valid value
+         * @return This builder
+         * @throws IllegalArgumentException if the key has not been declared
+         */
+        public <T extends Comparable<? super T>> Builder range(ConfigKey<T> key, T min, T max) {
+            return check(key, value -> value.compareTo(min) >= 0 && value.compareTo(max) <= 0,
+                    "must be between " + min + " and " + max);
+        }
+
+        /**
+         * Adds a rule to a declared key.
+         *
+         * @param key The declared key
+         * @param rule Accepts the valid values
+         * @param description Describes the rule in violation messages, e.g. {@code "must be positive"}
+         * @return This builder
+         * @throws IllegalArgumentException if the key has not been declared
+         */
+        @SuppressWarnings("unchecked")
+        public <T> Builder check(ConfigKey<T> key, Predicate<? super T> rule, String description) {
+            Entry<T> entry = (Entry<T>) entries.get(key);
+            if (entry == null) {
+                throw new IllegalArgumentException(key.getName() + " has not been declared");
+            }
+            List<Rule<T>> rules = new ArrayList<>(entry.rules());
+            rules.add(new Rule<>(rule, description));
+            entries.put(key, new Entry<>(key, entry.required(), entry.defaultValue(), List.copyOf(rules)));
+            return this;
+        }
+
+        private <T> Builder declare(ConfigKey<T> key, boolean required, T defaultValue) {
+            if (entries.containsKey(key)) {
+                throw new IllegalArgumentException(key.getName() + " has already been declared");
+            }
+            entries.put(key, new Entry<>(key, required, defaultValue, List.of()));
+            return this;
+        }
+
+        /**
+         * @return The schema
+         */
+        public ConfigSchema build() {
+            return new ConfigSchema(new ArrayList<>(entries.values()));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.aimitjava.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Overrides values for the duration of one call on the current thread, e.g. the model of a single
+ * request, without changing or copying the shared {@link Configuration}:
+ * <pre>{@code
+ * ConfigScope.with("openai.model.name", "gpt-4o")
+ *         .and("openai.temperature", "0.2")
+ *         .run(() -> handle(request));
+ * }</pre>
+ * Scoped values take precedence over environment variables and all sources in every
+ * {@link Configuration} read on that thread. Scopes nest; an inner scope overrides the keys of the
+ * outer one. Scoped values are never inherited implicitly, so a pool thread created while a scope
+ * is active does not keep its values; bind tasks run on other threads, including threads started
+ * inside the scope, with {@link #wrap(Runnable)}.
+ * <p>
+ * A lookup only reads the scope of the calling thread, so scopes entered on other threads never
+ * slow it down or contend with it.
+ */
+public final class ConfigScope {
+    private static final ThreadLocal<Map<String, String>> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, String> overrides;
+
+    private ConfigScope(Map<String, String> overrides) {
+        this.overrides = Map.copyOf(overrides);
+    }
+
+    /**
+     * @param key The property key
+     * @param value The value to use within the scope
+     * @return A scope overriding the key
+     */
+    public static ConfigScope with(String key, String value) {
+        return new ConfigScope(Map.of(key, value));
+    }
+
+    /**
+     * @param overrides The values to use within the scope
+     * @return A scope overriding the keys
+     */
+    public static ConfigScope with(Map<String, String> overrides) {
+        return new ConfigScope(overrides);
+    }
+
+    /**
+     * @param key The property key
+     * @param value The value to use within the scope
+     * @return A scope overriding the key in addition to the keys of this scope
+     */
+    public ConfigScope and(String key, String value) {
+        Map<String, String> merged = new HashMap<>(overrides);
+        merged.put(key, value);
+        return new ConfigScope(merged);
+    }
+
+    /**
+     * @return The values overridden by this scope
+     */
+    public Map<String, String> getOverrides() {
+        return overrides;
+    }
+
+    /**
+     * Runs a task with the values of this scope.
+     *
+     * @param task The task
+     */
+    public void run(Runnable task) {
+        Map<String, String> previous = enter();
+        try {
+            task.run();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    /**
+     * Calls a task with the values of this scope.
+     *
+     * @param task The task
+     * @return The result of the task
+     * @throws Exception if the task throws
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        Map<String, String> previous = enter();
+        try {
+            return task.call();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    private Map<String, String> enter() {
+        Map<String, String> previous = CURRENT.get();
+        Map<String, String> values = overrides;
+        if (previous != null) {
+            values = new HashMap<>(previous);
+            values.putAll(overrides);
+        }
+        CURRENT.set(values);
+        return previous;
+    }
+
+    private static void exit(Map<String, String> previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Binds a task to the scoped values of the calling thread, so that they apply wherever the
+     * task runs, e.g. in a thread pool.
+     *
+     * @param task The task
+     * @return The bound task, or the task itself if no scope is active
+     */
+    public static Runnable wrap(Runnable task) {
+        Map<String, String> values = current();
+        return values == null ? task : () -> new ConfigScope(values).run(task);
+    }
+
+    /**
+     * Binds a task to the scoped values of the calling thread, so that they apply wherever the
+     * task runs, e.g. in a thread pool.
+     *
+     * @param task The task
+     * @return The bound task, or the task itself if no scope is active
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Map<String, String> values = current();
+        return values == null ? task : () -> new ConfigScope(values).call(task);
+    }
+
+    /**
+     * @return The values of the scope active on the calling thread, or null if there is none
+     */
+    static Map<String, String> current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @param key The property key
+     * @return The value of the key in the scope active on the calling thread, or null if not overridden
+     */
+    static String lookup(String key) {
+        Map<String, String> values = current();
+        return values == null ? null : values.get(key);
+    }
+}
@@ -0,0 +1,557 @@
+package com.aimitjava.config;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable view of one load of all sources together with the values derived from it.
+ * Every (re)load publishes a new snapshot, so derived caches are invalidated atomically with
+ * the values they were computed from.
+ */
+final class ConfigSnapshot {
+    private static final Object MISSING = new Object();
+    // Slots are stored in pages allocated on first access, so unused key indexes cost no memory
+    private static final int PAGE_SHIFT = 5;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    // Cached values are stored with release and read with acquire semantics, so that a thread
+    // reading a cached value also sees its contents, e.g. the elements of a converted int[]
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final List<Layer> layers;
+    // The eagerly loaded values, published as Configuration.properties; owned by this snapshot
+    // and copied from the shared values of the sources only if modified or read as a whole
+    private final Properties properties;
+    // The combined values of all layers, including memory-mapped ones
+    private final Map<String, String> values;
+    private final EnvironmentProvider environmentProvider;
+    // Values with placeholders, resolved once when the snapshot is created
+    private final Map<String, String> interpolated;
+    // Converted values indexed by ConfigKey.index(), in pages of PAGE_SIZE; filled on first access
+    private volatile Object[][] pages = new Object[0][];
+    // Converted values of keys looked up by name, by ConfigKey.Type.id(); only keys with a value are cached
+    private final Map<String, Object[]> converted = new ConcurrentHashMap<>();
+    // The keys of all sources in sorted order for prefix queries; built on first use
+    private volatile String[] sortedKeys;
+
+    /**
+     * The values of one source.
+     *
+     * @param name The name of the source
+     * @param source The source, or null for a table set directly by a subclass
+     * @param values The values; must not be modified after publication
+     */
+    record Layer(String name, ConfigSource source, Map<String, String> values) {
+    }
+
+    /**
+     * @param layers The loaded sources, ordered from highest to lowest precedence
+     * @param environmentProvider The environment variables taking precedence over the sources
+     */
+    ConfigSnapshot(List<Layer> layers, EnvironmentProvider environmentProvider) {
+        this(layers, environmentProvider, null);
+    }
+
+    /**
+     * @param published The table set directly by a subclass, used as is; null for a new table
+     *                  over the values of the layers, so that the values of a source are never
+     *                  exposed as a modifiable table shared with other configurations
+     */
+    private ConfigSnapshot(List<Layer> layers, EnvironmentProvider environmentProvider, Properties published) {
+        this.layers = List.copyOf(layers);
+        this.environmentProvider = environmentProvider;
+
+        boolean mapped = false;
+        Map<String, String> eager;
+        if (published != null) {
+            this.properties = published;
+            eager = asMap(published);
+        } else {
+            List<Map<String, String>> eagerLayers = new ArrayList<>();
+            for (Layer layer : layers) {
+                if (layer.values() instanceof MappedPropertiesFile) {
+                    mapped = true;
+                } else {
+                    eagerLayers.add(layer.values());
+                }
+            }
+            CopyOnWriteProperties table = new CopyOnWriteProperties(combine(eagerLayers));
+            this.properties = table;
+            eager = table.view();
+        }
+        if (!mapped) {
+            this.values = eager;
+        } else if (layers.size() == 1) {
+            this.values = layers.get(0).values();
+        } else {
+            this.values = new LayeredValues(this.layers);
+        }
+        this.interpolated = interpolate();
+    }
+
+    /**
+     * @param eagerLayers The values of the layers, ordered from highest to lowest precedence
+     * @return The values of a single layer as they are, shared with other snapshots; the values of
+     *         several layers combined into a new map
+     */
+    private static Map<String, String> combine(List<Map<String, String>> eagerLayers) {
+        if (eagerLayers.isEmpty()) {
+            return Map.of();
+        }
+        if (eagerLayers.size() == 1) {
+            return eagerLayers.get(0);
+        }
+        Map<String, String> combined = new HashMap<>();
+        for (int i = eagerLayers.size() - 1; i >= 0; i--) {
+            combined.putAll(eagerLayers.get(i));
+        }
+        return combined;
+    }
+
+    /**
+     * Creates a snapshot of a table set directly by a subclass.
+     */
+    static ConfigSnapshot ofProperties(Properties properties, EnvironmentProvider environmentProvider) {
+        return new ConfigSnapshot(List.of(new Layer("properties", null, asMap(properties))), environmentProvider, properties);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Map<String, String> asMap(Properties properties) {
+        // Properties loaded from a stream or set through setProperty only contain strings
+        return (Map) properties;
+    }
+
+    /**
+     * @return The loaded sources, ordered from highest to lowest precedence
+     */
+    List<Layer> layers() {
+        return layers;
+    }
+
+    /**
+     * @return The eagerly loaded values; memory-mapped sources are not copied into this table
+     */
+    Properties properties() {
+        return properties;
+    }
+
+    /**
+     * @return The keys of all sources, without environment variables
+     */
+    Set<String> keys() {
+        return values.keySet();
+    }
+
+    /**
+     * Finds the keys starting with a prefix by binary search in a sorted index of all keys.
+     * The index is built once per snapshot, on the first prefix query.
+     *
+     * @param prefix The key prefix; the empty string matches all keys
+     * @return The matching keys of all sources in sorted order, without environment variables;
+     *         an unmodifiable view of the index
+     */
+    List<String> keysWithPrefix(String prefix) {
+        String[] sorted = sortedKeys;
+        if (sorted == null) {
+            sorted = values.keySet().toArray(new String[0]);
+            Arrays.sort(sorted);
+            // Racing threads build equal indexes
+            sortedKeys = sorted;
+        }
+        int from = Arrays.binarySearch(sorted, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        // All keys with the prefix directly follow the prefix itself
+        int low = from;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle].startsWith(prefix)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(sorted).subList(from, low));
+    }
+
+    /**
+     * Finds the keys starting with a prefix, including keys only set by a {@link ConfigScope}.
+     *
+     * @param prefix The key prefix
+     * @param scoped The values of the active scope, or null if there is none
+     * @return The matching keys in sorted order; the index itself if the scope adds no keys
+     */
+    List<String> keysWithPrefix(String prefix, Map<String, String> scoped) {
+        List<String> keys = keysWithPrefix(prefix);
+        if (scoped == null) {
+            return keys;
+        }
+        List<String> merged = null;
+        for (String key : scoped.keySet()) {
+            if (key.startsWith(prefix) && !values.containsKey(key)) {
+                if (merged == null) {
+                    merged = new ArrayList<>(keys);
+                }
+                merged.add(key);
+            }
+        }
+        if (merged == null) {
+            return keys;
+        }
+        Collections.sort(merged);
+        return Collections.unmodifiableList(merged);
+    }
+
+    /**
+     * Creates a view of the keys starting with a prefix. Keys come from the sources and the given
+     * scope; values of the scope win, all others are resolved with environment variable precedence
+     * on access; nothing is copied.
+     *
+     * @param prefix The key prefix
+     * @param relative true to strip the prefix from the keys of the view
+     * @param scoped The values of the scope active when the view was created, or null if there is none
+     * @return An unmodifiable view in sorted key order
+     */
+    Map<String, String> withPrefix(String prefix, boolean relative, Map<String, String> scoped) {
+        return new PrefixValues(prefix, keysWithPrefix(prefix, scoped), relative, scoped);
+    }
+
+    /**
+     * Gets the value of a key from the sources, ignoring environment variables.
+     *
+     * @return The value or null if not found
+     */
+    String sourceValue(String key) {
+        if (!interpolated.isEmpty()) {
+            String value = interpolated.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return values.get(key);
+    }
+
+    /**
+     * Resolves a key with environment variable precedence.
+     *
+     * @return The value or null if not found
+     */
+    String resolve(String key) {
+        String envValue = environmentProvider.getRelaxedEnv(key);
+        if (envValue != null) {
+            return envValue;
+        }
+        return sourceValue(key);
+    }
+
+    boolean contains(String key) {
+        return environmentProvider.getRelaxedEnv(key) != null || values.containsKey(key);
+    }
+
+    /**
+     * Compiles every value containing placeholders and resolves it against the environment and
+     * the other values. Environment variables are not interpolated.
+     *
+     * @throws ConfigurationException if placeholders reference each other in a cycle
+     */
+    private Map<String, String> interpolate() {
+        Map<String, Template> templates = new HashMap<>();
+        for (String key : placeholderCandidates()) {
+            String value = values.get(key);
+            if (value != null && Template.isCandidate(value) && !isFromEnvironment(key)) {
+                templates.put(key, Template.compile(value));
+            }
+        }
+        if (templates.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> resolved = new HashMap<>();
+        for (String key : templates.keySet()) {
+            interpolate(key, templates, resolved, new ArrayList<>());
+        }
+        return resolved;
+    }
+
+    private String interpolate(String key, Map<String, Template> templates, Map<String, String> resolved, List<String> path) {
+        String done = resolved.get(key);
+        if (done != null) {
+            return done;
+        }
+        if (path.contains(key)) {
+            throw new ConfigurationException("Placeholder cycle: " + String.join(" -> ", path) + " -> " + key);
+        }
+        path.add(key);
+        String value = templates.get(key).render(name -> {
+            String envValue = environmentProvider.getRelaxedEnv(name);
+            if (envValue != null) {
+                return envValue;
+            }
+            return templates.containsKey(name) ? interpolate(name, templates, resolved, path) : values.get(name);
+        }, name -> System.err.println("Warning: Unresolved placeholder ${" + name + "} in " + key));
+        path.remove(path.size() - 1);
+        resolved.put(key, value);
+        return value;
+    }
+
+    /**
+     * @return The keys whose values may contain placeholders; memory-mapped values are not decoded
+     *         unless the index marks them
+     */
+    private Iterable<String> placeholderCandidates() {
+        if (values instanceof MappedPropertiesFile mapped) {
+            return mapped.placeholderKeys();
+        }
+        if (values instanceof LayeredValues layered) {
+            return layered.placeholderKeys();
+        }
+        return values.keySet();
+    }
+
+    boolean isFromEnvironment(String key) {
+        return environmentProvider.getRelaxedEnv(key) != null;
+    }
+
+    /**
+     * @return {@code "environment"}, the name of the source of the key, or null if not found
+     */
+    String sourceOf(String key) {
+        if (environmentProvider.getRelaxedEnv(key) != null) {
+            return "environment";
+        }
+        // Debugging only, so the layers are searched instead of keeping the source of every key
+        for (Layer layer : layers) {
+            if (layer.values().containsKey(key)) {
+                return layer.name();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the converted value of a key, resolving and converting it on first access.
+     *
+     * @return The value, or null if the key is not set or its value is invalid
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(ConfigKey<T> key) {
+        int index = key.index();
+        Object[][] current = pages;
+        int page = index >>> PAGE_SHIFT;
+        Object[] slots = page < current.length ? current[page] : null;
+        Object value = slots != null ? SLOT.getAcquire(slots, index & (PAGE_SIZE - 1)) : null;
+        if (value == null) {
+            T convertedValue = key.convert(resolve(key.getName()));
+            value = convertedValue != null ? convertedValue : MISSING;
+            // Racing threads store equal values, which are never modified after conversion
+            SLOT.setRelease(pageFor(index), index & (PAGE_SIZE - 1), value);
+        }
+        return value == MISSING ? null : (T) value;
+    }
+
+    /**
+     * Gets the converted value of a key looked up by name. Values are cached by name and type,
+     * but only for keys that are set, so looking up arbitrary missing names allocates nothing.
+     *
+     * @return The value, or null if the key is not set or its value is invalid
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String key, ConfigKey.Type<T> type) {
+        if (type == ConfigKey.STRING) {
+            return (T) resolve(key);
+        }
+        Object[] cached = converted.get(key);
+        Object value = cached != null ? SLOT.getAcquire(cached, type.id()) : null;
+        if (value == null) {
+            String raw = resolve(key);
+            if (raw == null) {
+                return null;
+            }
+            T convertedValue = type.convert(raw);
+            value = convertedValue != null ? convertedValue : MISSING;
+            if (cached == null) {
+                cached = converted.computeIfAbsent(key, name -> new Object[ConfigKey.TYPE_COUNT]);
+            }
+            // Racing threads store equal values, which are never modified after conversion
+            SLOT.setRelease(cached, type.id(), value);
+        }
+        return value == MISSING ? null : (T) value;
+    }
+
+    /**
+     * Stores the converted value of a key, e.g. a validated default, so that lookups of the key
+     * do not resolve or convert it.
+     */
+    <T> void preset(ConfigKey<T> key, T value) {
+        int index = key.index();
+        SLOT.setRelease(pageFor(index), index & (PAGE_SIZE - 1), value);
+    }
+
+    private Object[] pageFor(int index) {
+        int page = index >>> PAGE_SHIFT;
+        Object[][] current = pages;
+        if (page < current.length && current[page] != null) {
+            return current[page];
+        }
+        synchronized (this) {
+            Object[][] grown = pages;
+            if (page >= grown.length) {
+                grown = Arrays.copyOf(grown, page + 1);
+            } else if (grown[page] == null) {
+                grown = grown.clone();
+            } else {
+                return grown[page];
+            }
+            grown[page] = new Object[PAGE_SIZE];
+            // Published as a new table, so readers never see a page before it is set
+            pages = grown;
+            return grown[page];
+        }
+    }
+
+    /**
+     * The keys of one prefix range of the sorted index, with their resolved values.
+     */
+    private final class PrefixValues extends AbstractMap<String, String> {
+        private final String prefix;
+        private final List<String> keys;
+        private final boolean relative;
+        // Never modified; null without an active scope
+        private final Map<String, String> scoped;
+
+        PrefixValues(String prefix, List<String> keys, boolean relative, Map<String, String> scoped) {
+            this.prefix = prefix;
+            this.keys = keys;
+            this.relative = relative;
+            this.scoped = scoped;
+        }
+
+        private String fullKey(Object key) {
+            if (!(key instanceof String name)) {
+                return null;
+            }
+            String full = relative ? prefix + name : name;
+            return full.startsWith(prefix) && (values.containsKey(full) || scoped != null && scoped.containsKey(full))
+                    ? full : null;
+        }
+
+        private String value(String key) {
+            String value = scoped != null ? scoped.get(key) : null;
+            return value != null ? value : resolve(key);
+        }
+
+        @Override
+        public String get(Object key) {
+            String full = fullKey(key);
+            return full != null ? value(full) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return fullKey(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    Iterator<String> iterator = keys.iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            String key = iterator.next();
+                            return new SimpleImmutableEntry<>(relative ? key.substring(prefix.length()) : key, value(key));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * The combined view of several layers, at least one of them memory-mapped. Only the owning
+     * layer of each key is recorded for memory-mapped layers, so their values stay undecoded until
+     * first accessed.
+     */
+    private static final class LayeredValues extends AbstractMap<String, String> {
+        // A value of an eager layer, or the memory-mapped layer holding the value
+        private final Map<String, Object> entries = new HashMap<>();
+
+        LayeredValues(List<Layer> layers) {
+            for (int i = layers.size() - 1; i >= 0; i--) {
+                Map<String, String> layerValues = layers.get(i).values();
+                if (layerValues instanceof MappedPropertiesFile mapped) {
+                    for (String key : mapped.keySet()) {
+                        entries.put(key, mapped);
+                    }
+                } else {
+                    entries.putAll(layerValues);
+                }
+            }
+        }
+
+        @Override
+        public String get(Object key) {
+            Object entry = entries.get(key);
+            if (entry instanceof MappedPropertiesFile mapped) {
+                return mapped.get(key);
+            }
+            return (String) entry;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return entries.containsKey(key);
+        }
+
+        List<String> placeholderKeys() {
+            List<String> keys = new ArrayList<>();
+            entries.forEach((key, entry) -> {
+                if (entry instanceof MappedPropertiesFile mapped ? mapped.mayContainPlaceholder(key) : Template.isCandidate((String) entry)) {
+                    keys.add(key);
+                }
+            });
+            return keys;
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Collections.unmodifiableSet(entries.keySet());
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            Map<String, String> resolved = new HashMap<>();
+            entries.keySet().forEach(key -> resolved.put(key, get(key)));
+            return Collections.unmodifiableSet(resolved.entrySet());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.aimitjava.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * A layer of configuration values. A {@link Configuration} combines several sources in order of
+ * precedence; the combined view is computed once per (re)load, so lookups do not depend on the
+ * number of sources. Environment variables always take precedence over all sources.
+ */
+public interface ConfigSource {
+
+    /**
+     * @return A name identifying the source, reported by {@link Configuration#getPropertySource(String)}
+     */
+    String getName();
+
+    /**
+     * Reads all values of the source.
+     *
+     * @return The values, or null if the source does not exist
+     * @throws IOException if the source exists but cannot be read
+     */
+    Map<String, String> load() throws IOException;
+
+    /**
+     * @return A file whose changes should trigger a reload, or null if the source cannot be watched
+     */
+    default Path getWatchPath() {
+        return null;
+    }
+
+    /**
+     * A properties file, looked up on the classpath first and then on the file system.
+     *
+     * @param name The resource name or file path
+     * @return The source
+     */
+    static ConfigSource propertiesFile(String name) {
+        return new PropertiesFileSource(name, Configuration.class.getClassLoader());
+    }
+
+    /**
+     * A large properties file on the file system, e.g. a catalog of prompt templates. The file is
+     * memory-mapped and indexed in a single pass; values are decoded on first access, so neither
+     * loading nor memory use grows with the total size of the values. Replace the file atomically
+     * (write a new file and rename it) rather than modifying it in place.
+     *
+     * @param path The file path
+     * @return The source
+     */
+    static ConfigSource mappedPropertiesFile(Path path) {
+        return new MappedPropertiesSource(path);
+    }
+
+    /**
+     * Values served by a remote config endpoint. Only the changes since the last known revision are
+     * transferred; the latest values are cached in a local file, so a restart starts from the cached
+     * revision and works while the endpoint is unreachable. With {@link Configuration#enableReload()}
+     * the endpoint is long-polled and each new revision is published as a whole.
+     * <p>
+     * The endpoint is requested as {@code GET <endpoint>?since=<revision>[&wait=<seconds>]} and answers
+     * {@code 304} if nothing changed, or {@code 200} with a properties body and the headers
+     * {@code X-Config-Revision}, {@code X-Config-Delta: true} if the body only holds the changed keys,
+     * and {@code X-Config-Removed} listing removed keys URL-encoded and separated by commas.
+     *
+     * @param endpoint The endpoint URL
+     * @param cacheFile The local cache file; created if it does not exist
+     * @return The source
+     */
+    static ConfigSource remote(URI endpoint, Path cacheFile) {
+        return new RemoteConfigSource(endpoint, cacheFile);
+    }
+
+    /**
+     * The JVM system properties, read on every (re)load.
+     *
+     * @return The source
+     */
+    static ConfigSource systemProperties() {
+        return new SystemPropertiesSource();
+    }
+
+    /**
+     * Fixed in-memory values, e.g. overrides or defaults.
+     *
+     * @param name The name of the source
+     * @param values The values; copied
+     * @return The source
+     */
+    static ConfigSource fromMap(String name, Map<String, String> values) {
+        return new MapConfigSource(name, values);
+    }
+}
@@ -0,0 +1,17 @@
+package com.aimitjava.config;
+
+/**
+ * Handle for a registered {@link ConfigChangeListener}.
+ */
+public interface ConfigSubscription extends AutoCloseable {
+
+    /**
+     * Stops delivering notifications to the listener. Calling it more than once has no effect.
+     */
+    void cancel();
+
+    @Override
+    default void close() {
+        cancel();
+    }
+}
@@ -0,0 +1,158 @@
+package com.aimitjava.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The keys of one namespace of a {@link Configuration}, e.g. {@code openai.} or
+ * {@code model.gpt-4o.}, addressed by their names relative to the namespace. A view stores only
+ * its namespace and follows reloads of the configuration; values are resolved with environment
+ * variable precedence. A {@link ConfigScope} active on the calling thread applies as it does to
+ * {@link Configuration#getProperty(String)}: its values win, and the keys it sets are listed.
+ * <p>
+ * Keys are found by binary search in a sorted index of all keys, built once per loaded snapshot,
+ * so enumerating a namespace does not iterate the whole configuration.
+ */
+public final class ConfigView {
+    private final Configuration base;
+    private final String namespace;
+
+    ConfigView(Configuration base, String namespace) {
+        this.base = base;
+        this.namespace = namespace.isEmpty() || namespace.endsWith(".") ? namespace : namespace + ".";
+    }
+
+    /**
+     * @return The namespace including the trailing dot, e.g. {@code openai.}
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * Gets a property value.
+     *
+     * @param name The key relative to the namespace
+     * @return The property value or null if not found
+     */
+    public String getProperty(String name) {
+        return base.getProperty(namespace + name);
+    }
+
+    /**
+     * Gets a property value with a default fallback.
+     *
+     * @param name The key relative to the namespace
+     * @param defaultValue The default value if property is not found
+     * @return The property value or defaultValue if not found
+     */
+    public String getProperty(String name, String defaultValue) {
+        return base.getProperty(namespace + name, defaultValue);
+    }
+
+    /**
+     * Gets an integer property value.
+     *
+     * @param name The key relative to the namespace
+     * @param defaultValue The default value if property is not found or not a valid integer
+     * @return The property value as an integer or defaultValue
+     */
+    public int getIntProperty(String name, int defaultValue) {
+        return base.getIntProperty(namespace + name, defaultValue);
+    }
+
+    /**
+     * Gets a double property value.
+     *
+     * @param name The key relative to the namespace
+     * @param defaultValue The default value if property is not found or not a valid double
+     * @return The property value as a double or defaultValue
+     */
+    public double getDoubleProperty(String name, double defaultValue) {
+        return base.getDoubleProperty(namespace + name, defaultValue);
+    }
+
+    /**
+     * Gets a boolean property value.
+     *
+     * @param name The key relative to the namespace
+     * @param defaultValue The default value if property is not found
+     * @return The property value as a boolean or defaultValue
+     */
+    public boolean getBooleanProperty(String name, boolean defaultValue) {
+        return base.getBooleanProperty(namespace + name, defaultValue);
+    }
+
+    /**
+     * Checks if a property exists.
+     *
+     * @param name The key relative to the namespace
+     * @return true if the property exists in environment or any source
+     */
+    public boolean hasProperty(String name) {
+        return base.hasProperty(namespace + name);
+    }
+
+    /**
+     * @return The keys of the namespace relative to it, in sorted order, including keys set by an
+     *         active scope; keys set only as environment variables are not listed
+     */
+    public List<String> keys() {
+        List<String> keys = base.snapshot().keysWithPrefix(namespace, ConfigScope.current());
+        List<String> relative = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            relative.add(key.substring(namespace.length()));
+        }
+        return Collections.unmodifiableList(relative);
+    }
+
+    /**
+     * Gets the names of the direct children of the namespace, e.g. {@code gpt-4o} and
+     * {@code claude} for the keys {@code model.gpt-4o.name} and {@code model.claude.name} in the
+     * namespace {@code model.}.
+     *
+     * @return The child names in sorted order
+     */
+    public List<String> getChildNames() {
+        List<String> names = new ArrayList<>();
+        for (String key : base.snapshot().keysWithPrefix(namespace, ConfigScope.current())) {
+            int end = key.indexOf('.', namespace.length());
+            if (end > namespace.length()) {
+                String name = key.substring(namespace.length(), end);
+                // Keys are sorted, so the keys of one child are adjacent
+                if (names.isEmpty() || !names.get(names.size() - 1).equals(name)) {
+                    names.add(name);
+                }
+            }
+        }
+        // Key order puts "a-b.x" before "a.x"
+        Collections.sort(names);
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @param name The name of a child namespace, e.g. {@code gpt-4o}
+     * @return The view of the child namespace
+     */
+    public ConfigView getView(String name) {
+        return new ConfigView(base, namespace + name);
+    }
+
+    /**
+     * Gets the values of the namespace as an unmodifiable map keyed by the relative names. The map
+     * is a view of the currently loaded values and of the scope active when it was created; it is
+     * not updated by later reloads.
+     *
+     * @return The values in sorted key order
+     */
+    public Map<String, String> asMap() {
+        return base.snapshot().withPrefix(namespace, true, ConfigScope.current());
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigView[" + namespace + "]";
+    }
+}
@@ -1,19 +1,55 @@
 package com.aimitjava.config;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Configuration management class that handles loading properties from
  * environment variables and properties files with a defined precedence.
+ * The properties file is looked up on the classpath first and then on the file system.
+ * Further layers can be combined with {@link #fromSources(ConfigSource...)}.
+ * <p>
+ * Values may reference other keys and environment variables as {@code ${name}} or
+ * {@code ${name:default}}. Placeholders are resolved once per load; a load whose placeholders
+ * reference each other in a cycle fails with a {@link ConfigurationException}.
  */
 public class Configuration {
     private static final String DEFAULT_PROPERTIES_FILE = "application.properties";
-    protected static Configuration instance;
-    protected final Properties properties;
+    private static final Duration DEFAULT_RELOAD_INTERVAL = Duration.ofMillis(500);
+    // Written under the class lock, read without it
+    protected static volatile Configuration instance;
+    /**
+     * The combined values of all sources; replaced as a whole on reload. The table reads the values
+     * shared with other configurations of the same file and copies them only when modified or
+     * read as a whole; modifications are seen by the getters of this configuration only.
+     * Values of memory-mapped sources are not copied into this table, use {@link #getProperty(String)}.
+     */
+    protected volatile Properties properties;
     protected final EnvironmentProvider environmentProvider;
+    // The single properties file this configuration was created for, or null for a source chain
     private final String propertiesFile;
+    // Ordered from highest to lowest precedence
+    private final List<ConfigSource> sources;
+    private final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+    // Guards publishing the table and snapshot together, so that a reader never takes a table
+    // published for the next snapshot as one replaced by a subclass
+    private final Object publishLock = new Object();
+    // The snapshot last installed by publish(), never a replacement for a subclass table; guarded
+    // by publishLock
+    private ConfigSnapshot installed;
+    private final ChangeNotifier changeNotifier = new ChangeNotifier();
+    private final List<SourceWatcher> watchers = new ArrayList<>();
+    private volatile ConfigLoadReport loadReport;
+    // Null while metrics are disabled
+    private volatile ConfigMetrics metrics;
+    // Null if no schema has been set
+    private volatile ConfigSchema schema;
 
     /**
      * Creates a Configuration instance with default properties file.
@@ -39,26 +75,74 @@ public class Configuration {
      * @param environmentProvider The environment provider to use
      */
     Configuration(String propertiesFile, EnvironmentProvider environmentProvider) {
+        this(propertiesFile, List.of(ConfigSource.propertiesFile(propertiesFile)), environmentProvider);
+    }
+
+    /**
+     * Creates a Configuration instance combining several sources.
+     *
+     * @param sources The sources, ordered from highest to lowest precedence
+     */
+    public Configuration(List<ConfigSource> sources) {
+        this(sources, EnvironmentProvider.getInstance());
+    }
+
+    /**
+     * Creates a Configuration instance combining several sources with a custom environment provider.
+     *
+     * @param sources The sources, ordered from highest to lowest precedence
+     * @param environmentProvider The environment provider to use
+     */
+    Configuration(List<ConfigSource> sources, EnvironmentProvider environmentProvider) {
+        this(null, sources, environmentProvider);
+    }
+
+    private Configuration(String propertiesFile, List<ConfigSource> sources, EnvironmentProvider environmentProvider) {
         this.propertiesFile = propertiesFile;
+        this.sources = List.copyOf(sources);
         this.environmentProvider = environmentProvider;
-        this.properties = new Properties();
-        loadProperties();
+        publish(loadSnapshot(false));
     }
 
     /**
-     * Gets the singleton instance of Configuration.
+     * Creates a Configuration instance with the sources and loaded values of another one, without
+     * reading the sources again. Reload, listener and metrics settings are not taken over.
+     *
+     * @param loaded The configuration to take the values from
+     */
+    Configuration(Configuration loaded) {
+        this.propertiesFile = loaded.propertiesFile;
+        this.sources = loaded.sources;
+        this.environmentProvider = loaded.environmentProvider;
+        this.loadReport = loaded.loadReport;
+        this.schema = loaded.schema;
+        // A new snapshot of the same layers, so that neither instance sees the other's properties table
+        publish(validated(new ConfigSnapshot(loaded.snapshot().layers(), environmentProvider)));
+    }
+
+    /**
+     * Gets the singleton instance of Configuration. The instance is created at most once, even if
+     * several threads ask for it at the same time; once created, this method does not lock.
+     * If {@link LangchainConfiguration#getInstance()} has been called before, its instance is returned.
      *
      * @return The singleton instance
      */
     public static Configuration getInstance() {
-        if (instance == null) {
-            instance = new Configuration();
+        Configuration current = instance;
+        if (current != null) {
+            return current;
+        }
+        synchronized (Configuration.class) {
+            if (instance == null) {
+                instance = new Configuration();
+            }
+            return instance;
         }
-        return instance;
     }
 
     /**
-     * Creates a new instance with a specific properties file.
+     * Creates a new instance with a specific properties file. All instances created for the
+     * same unchanged file share its parsed values, see {@link ConfigRegistry}.
      *
      * @param propertiesFile The properties file to use
      * @return A new Configuration instance
@@ -67,23 +151,308 @@ public class Configuration {
         return new Configuration(propertiesFile);
     }
 
+    /**
+     * Creates a new instance combining several sources, e.g.
+     * <pre>{@code
+     * Configuration.fromSources(
+     *         ConfigSource.fromMap("overrides", overrides),
+     *         ConfigSource.systemProperties(),
+     *         ConfigSource.propertiesFile("application.properties"),
+     *         ConfigSource.fromMap("defaults", defaults));
+     * }</pre>
+     *
+     * @param sources The sources, ordered from highest to lowest precedence
+     * @return A new Configuration instance
+     */
+    public static Configuration fromSources(ConfigSource... sources) {
+        return new Configuration(List.of(sources));
+    }
+
     /**
      * Resets the singleton instance (for testing).
      */
     static void reset() {
-        instance = null;
+        synchronized (Configuration.class) {
+            instance = null;
+        }
     }
 
-    private void loadProperties() {
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream(propertiesFile)) {
-            if (input != null) {
-                properties.load(input);
+    /**
+     * Loads all sources concurrently and combines them into one view, higher precedence
+     * sources overriding lower ones.
+     *
+     * @param reloading true if a previously loaded source that is now missing or unreadable should
+     *                  abort the load, so that the previous values are kept; otherwise such sources
+     *                  are skipped
+     * @return The combined snapshot, or null if the load was aborted
+     */
+    private ConfigSnapshot loadSnapshot(boolean reloading) {
+        ConfigLoadEvent event = new ConfigLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        if (reloading) {
+            // An explicit reload must not be answered from the shared values
+            for (ConfigSource source : sources) {
+                if (source instanceof PropertiesFileSource file) {
+                    file.invalidate();
+                }
+            }
+        }
+        List<ParallelSourceLoader.Result> results = ParallelSourceLoader.loadAll(sources);
+        List<ConfigLoadReport.SourceLoad> loads = new ArrayList<>(results.size());
+        for (ParallelSourceLoader.Result result : results) {
+            loads.add(result.load());
+        }
+        loadReport = new ConfigLoadReport(loads, Duration.ofNanos(System.nanoTime() - start));
+
+        ConfigSnapshot loaded = combine(results, reloading);
+        if (event.shouldCommit()) {
+            event.sources = describeSources();
+            event.reload = reloading;
+            for (ConfigLoadReport.SourceLoad load : loads) {
+                switch (load.status()) {
+                    case LOADED -> event.loadedSources++;
+                    case MISSING -> event.missingSources++;
+                    case FAILED -> event.failedSources++;
+                }
+                event.entries += load.entries();
+            }
+            event.published = loaded != null;
+            event.commit();
+        }
+        return loaded;
+    }
+
+    private ConfigSnapshot combine(List<ParallelSourceLoader.Result> results, boolean reloading) {
+        List<ConfigSnapshot.Layer> layers = new ArrayList<>(results.size());
+        for (ParallelSourceLoader.Result result : results) {
+            if (result.values() == null) {
+                // Losing a source would silently drop its values; one that was missing before,
+                // e.g. an optional file, is skipped as on the first load
+                if (reloading && wasLoaded(result.source())) {
+                    return null;
+                }
+                continue;
+            }
+            layers.add(new ConfigSnapshot.Layer(result.source().getName(), result.source(), result.values()));
+        }
+        return validated(new ConfigSnapshot(layers, environmentProvider));
+    }
+
+    private boolean wasLoaded(ConfigSource source) {
+        for (ConfigSnapshot.Layer layer : snapshot.get().layers()) {
+            if (layer.source() == source) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ConfigSnapshot validated(ConfigSnapshot loaded) {
+        ConfigSchema current = schema;
+        if (current != null) {
+            current.validate(loaded);
+        }
+        return loaded;
+    }
+
+    private void publish(ConfigSnapshot next) {
+        synchronized (publishLock) {
+            properties = next.properties();
+            snapshot.set(next);
+            // Diffed against the last loaded values: a replacement for a subclass table may
+            // already contain the new values and would hide the change
+            ConfigSnapshot previous = installed;
+            installed = next;
+            if (previous != null) {
+                changeNotifier.published(previous, next);
             }
-        } catch (IOException e) {
-            System.err.println("Warning: Could not load " + propertiesFile);
         }
     }
 
+    /**
+     * Gets the current snapshot. If a subclass replaced {@link #properties} directly,
+     * a snapshot for the new table is published first.
+     */
+    ConfigSnapshot snapshot() {
+        ConfigSnapshot current = snapshot.get();
+        if (current.properties() != properties) {
+            return replaced();
+        }
+        return current;
+    }
+
+    private ConfigSnapshot replaced() {
+        synchronized (publishLock) {
+            // Checked again under the lock: the mismatch may only have been a publication in progress
+            ConfigSnapshot current = snapshot.get();
+            Properties published = properties;
+            if (current.properties() != published) {
+                current = ConfigSnapshot.ofProperties(published, environmentProvider);
+                snapshot.set(current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Re-reads all sources and atomically publishes the combined values. Readers keep
+     * seeing the previous values until all sources have been read completely.
+     * If a previously loaded source is missing or cannot be read, or the new values are
+     * inconsistent, the previous values are kept. Sources that were already missing are skipped.
+     */
+    public void reload() {
+        ConfigSnapshot loaded;
+        try {
+            loaded = loadSnapshot(true);
+        } catch (ConfigurationException e) {
+            System.err.println("Warning: Could not reload " + describeSources() + ": " + e.getMessage() + ", keeping previous values");
+            return;
+        }
+        if (loaded == null) {
+            System.err.println("Warning: Could not reload " + describeSources() + ", keeping previous values");
+            return;
+        }
+        publish(loaded);
+    }
+
+    private String describeSources() {
+        if (propertiesFile != null) {
+            return propertiesFile;
+        }
+        List<String> names = new ArrayList<>();
+        for (ConfigSource source : sources) {
+            names.add(source.getName());
+        }
+        return String.join(", ", names);
+    }
+
+    /**
+     * Sets the schema every load must satisfy. The current values are checked immediately, so an
+     * invalid configuration fails at startup rather than when a value is first read; later reloads
+     * violating the schema are rejected and the previous values are kept.
+     *
+     * @param schema The schema, or null to stop validating
+     * @throws ConfigurationException listing all violations of the current values; the schema is
+     *         not set in that case
+     */
+    public synchronized void setSchema(ConfigSchema schema) {
+        ConfigSnapshot current = snapshot();
+        // Validate a fresh copy, so that no reader sees a snapshot that is still being checked
+        ConfigSnapshot checked = new ConfigSnapshot(current.layers(), environmentProvider);
+        if (schema != null) {
+            schema.validate(checked);
+        }
+        this.schema = schema;
+        publish(checked);
+    }
+
+    /**
+     * @return The schema every load must satisfy, or null if none is set
+     */
+    public ConfigSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Gets the per-source timings of the most recent load or reload, including failed ones.
+     *
+     * @return The load report
+     */
+    public ConfigLoadReport getLoadReport() {
+        return loadReport;
+    }
+
+    /**
+     * Enables automatic reloading when a properties file changes.
+     *
+     * @see #enableReload(Duration)
+     */
+    public void enableReload() {
+        enableReload(DEFAULT_RELOAD_INTERVAL);
+    }
+
+    /**
+     * Enables automatic reloading when a properties file changes. Every source backed by a file
+     * on the file system is watched. Changes are detected by a file system watch service where
+     * available, otherwise by polling. Remote sources are long-polled for new revisions.
+     * Reloading happens on a background thread, never on the thread reading a property.
+     *
+     * @param interval The polling interval, or the quiet period after a change event
+     *                 before the file is read
+     * @throws IllegalStateException if no source is a file on the file system or a remote source
+     */
+    public synchronized void enableReload(Duration interval) {
+        if (!watchers.isEmpty()) {
+            return;
+        }
+        for (ConfigSource source : sources) {
+            if (source instanceof RemoteConfigSource remote) {
+                watchers.add(new RemoteConfigPoller(remote, interval, this::reload));
+                continue;
+            }
+            Path path = source.getWatchPath();
+            if (path != null) {
+                watchers.add(new PropertiesFileWatcher(path, interval, this::reload));
+            }
+        }
+        if (watchers.isEmpty()) {
+            throw new IllegalStateException("Cannot watch " + describeSources() + ": not a file on the file system or a remote source");
+        }
+    }
+
+    /**
+     * Stops automatic reloading.
+     */
+    public synchronized void disableReload() {
+        watchers.forEach(SourceWatcher::close);
+        watchers.clear();
+    }
+
+    /**
+     * Subscribes to changes of a single key. The listener is called at most once per
+     * (debounced) reload, and only if the effective value of the key changed.
+     *
+     * @param key The property key
+     * @param listener The listener to notify
+     * @return A handle to cancel the subscription
+     */
+    public ConfigSubscription subscribe(String key, ConfigChangeListener listener) {
+        return changeNotifier.subscribeToKey(key, listener);
+    }
+
+    /**
+     * Subscribes to changes of all keys starting with a prefix, e.g. {@code "openai."}.
+     * All matching changes of one (debounced) reload are delivered in a single event.
+     *
+     * @param prefix The key prefix
+     * @param listener The listener to notify
+     * @return A handle to cancel the subscription
+     */
+    public ConfigSubscription subscribeToPrefix(String prefix, ConfigChangeListener listener) {
+        return changeNotifier.subscribeToPrefix(prefix, listener);
+    }
+
+    /**
+     * Sets the executor on which change listeners are called. Defaults to virtual threads. A
+     * listener is never called concurrently with itself and receives its events in reload order.
+     *
+     * @param executor The executor to use
+     */
+    public void setChangeExecutor(Executor executor) {
+        changeNotifier.setExecutor(executor);
+    }
+
+    /**
+     * Sets how long to wait after a reload for further reloads before notifying listeners.
+     * All reloads within this period are merged into a single diff. Defaults to 200 ms.
+     *
+     * @param debounce The debounce period
+     */
+    public void setChangeDebounce(Duration debounce) {
+        changeNotifier.setDebounce(debounce);
+    }
+
     /**
      * Gets a property value with environment variable precedence.
      *
@@ -92,12 +461,79 @@ public class Configuration {
      */
     public String getProperty(String key) {
         // Environment variables take precedence over properties file
-        String envValue = environmentProvider.getEnv(key);
-        if (envValue != null && !envValue.trim().isEmpty()) {
-            return envValue;
+        return get(key, ConfigKey.STRING);
+    }
+
+    /**
+     * Gets the converted value of a key with environment variable precedence.
+     * The value is resolved and converted once per loaded snapshot. A value overridden by an
+     * active {@link ConfigScope} takes precedence and is converted on every call.
+     *
+     * @param key The key handle
+     * @return The value, or null if not found or not a valid value for the key's type
+     */
+    public <T> T get(ConfigKey<T> key) {
+        String scoped = ConfigScope.lookup(key.getName());
+        if (scoped != null) {
+            return key.convert(scoped);
+        }
+        ConfigSnapshot current = snapshot();
+        T value = current.get(key);
+        ConfigMetrics enabled = metrics;
+        if (enabled != null) {
+            enabled.recordLookup(current, key.getName(), value != null);
         }
+        return value;
+    }
+
+    /**
+     * Gets the converted value of a key looked up by name. A key created through the factory
+     * methods of {@link ConfigKey}, e.g. one declared by a schema, is read from its slot; any
+     * other name is converted without creating a key, so arbitrary names allocate no slots.
+     *
+     * @return The value, or null if not found or not a valid value for the type
+     */
+    <T> T get(String key, ConfigKey.Type<T> type) {
+        ConfigKey<T> declared = type.existingKey(key);
+        if (declared != null) {
+            return get(declared);
+        }
+        String scoped = ConfigScope.lookup(key);
+        if (scoped != null) {
+            return type.convert(scoped);
+        }
+        ConfigSnapshot current = snapshot();
+        T value = current.get(key, type);
+        ConfigMetrics enabled = metrics;
+        if (enabled != null) {
+            enabled.recordLookup(current, key, value != null);
+        }
+        return value;
+    }
 
-        return properties.getProperty(key);
+    private <T> T get(String key, ConfigKey.Type<T> type, T defaultValue) {
+        T value = get(key, type);
+        if (value != null) {
+            return value;
+        }
+        recordDefault(key);
+        return defaultValue;
+    }
+
+    /**
+     * Gets the converted value of a key with a default fallback.
+     *
+     * @param key The key handle
+     * @param defaultValue The default value if the key is not found or its value is invalid
+     * @return The value or defaultValue
+     */
+    public <T> T get(ConfigKey<T> key, T defaultValue) {
+        T value = get(key);
+        if (value != null) {
+            return value;
+        }
+        recordDefault(key.getName());
+        return defaultValue;
     }
 
     /**
@@ -109,77 +545,241 @@ public class Configuration {
      */
     public String getProperty(String key, String defaultValue) {
         String value = getProperty(key);
-        return value != null ? value : defaultValue;
+        if (value != null) {
+            return value;
+        }
+        recordDefault(key);
+        return defaultValue;
     }
 
     /**
-     * Gets an integer property value.
+     * Gets an integer property value. The parsed value is cached per snapshot.
      *
      * @param key The property key
      * @param defaultValue The default value if property is not found or not a valid integer
      * @return The property value as an integer or defaultValue
      */
     public int getIntProperty(String key, int defaultValue) {
-        String value = getProperty(key);
-        if (value == null) {
-            return defaultValue;
-        }
-
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
+        Integer value = get(key, ConfigKey.INT);
+        if (value != null) {
+            return value;
         }
+        recordDefault(key);
+        return defaultValue;
     }
 
     /**
-     * Gets a double property value.
+     * Gets a double property value. The parsed value is cached per snapshot.
      *
      * @param key The property key
      * @param defaultValue The default value if property is not found or not a valid double
      * @return The property value as a double or defaultValue
      */
     public double getDoubleProperty(String key, double defaultValue) {
-        String value = getProperty(key);
-        if (value == null) {
-            return defaultValue;
-        }
-
-        try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
+        Double value = get(key, ConfigKey.DOUBLE);
+        if (value != null) {
+            return value;
         }
+        recordDefault(key);
+        return defaultValue;
     }
 
     /**
-     * Gets a boolean property value.
+     * Gets a boolean property value. The parsed value is cached per snapshot.
      *
      * @param key The property key
      * @param defaultValue The default value if property is not found
      * @return The property value as a boolean or defaultValue
      */
     public boolean getBooleanProperty(String key, boolean defaultValue) {
-        String value = getProperty(key);
-        if (value == null) {
-            return defaultValue;
+        Boolean value = get(key, ConfigKey.BOOLEAN);
+        if (value != null) {
+            return value;
+        }
+        recordDefault(key);
+        return defaultValue;
+    }
+
+    /**
+     * Gets a duration property value, e.g. {@code PT30S}, {@code 500ms} or a number of seconds.
+     * The parsed value is cached per snapshot.
+     *
+     * @param key The property key
+     * @param defaultValue The default value if property is not found or not a valid duration
+     * @return The property value as a duration or defaultValue
+     * @see ConfigKey#ofDuration(String)
+     */
+    public Duration getDurationProperty(String key, Duration defaultValue) {
+        return get(key, ConfigKey.DURATION, defaultValue);
+    }
+
+    /**
+     * Gets a byte size property value, e.g. {@code 512}, {@code 64KB} or {@code 2GB}.
+     * The parsed value is cached per snapshot.
+     *
+     * @param key The property key
+     * @param defaultValue The default number of bytes if property is not found or not a valid size
+     * @return The property value as a number of bytes or defaultValue
+     * @see ConfigKey#ofByteSize(String)
+     */
+    public long getByteSizeProperty(String key, long defaultValue) {
+        Long value = get(key, ConfigKey.BYTE_SIZE);
+        if (value != null) {
+            return value;
+        }
+        recordDefault(key);
+        return defaultValue;
+    }
+
+    /**
+     * Gets a comma-separated list property value. The parsed list is cached per snapshot and
+     * unmodifiable, so repeated reads return the same instance.
+     *
+     * @param key The property key
+     * @return The trimmed, non-empty elements, or an empty list if property is not found
+     */
+    public List<String> getListProperty(String key) {
+        return get(key, ConfigKey.LIST, List.of());
+    }
+
+    /**
+     * Gets a property value of comma-separated {@code key=value} entries, e.g.
+     * {@code gpt-4o=128000, gpt-4o-mini=16000}. The parsed map is cached per snapshot and
+     * unmodifiable, so repeated reads return the same instance.
+     *
+     * @param key The property key
+     * @return The entries in their order, or an empty map if property is not found or not valid
+     */
+    public Map<String, String> getMapProperty(String key) {
+        return get(key, ConfigKey.MAP, Map.of());
+    }
+
+    /**
+     * Gets a comma-separated list of integers. The parsed array is cached per snapshot and shared
+     * by all callers; it must not be modified.
+     *
+     * @param key The property key
+     * @param defaultValue The default value if property is not found or not a valid list of integers
+     * @return The property value as an integer array or defaultValue
+     */
+    public int[] getIntArrayProperty(String key, int[] defaultValue) {
+        return get(key, ConfigKey.INT_ARRAY, defaultValue);
+    }
+
+    /**
+     * Gets a comma-separated list of longs. The parsed array is cached per snapshot and shared
+     * by all callers; it must not be modified.
+     *
+     * @param key The property key
+     * @param defaultValue The default value if property is not found or not a valid list of longs
+     * @return The property value as a long array or defaultValue
+     */
+    public long[] getLongArrayProperty(String key, long[] defaultValue) {
+        return get(key, ConfigKey.LONG_ARRAY, defaultValue);
+    }
+
+    /**
+     * Gets the name of the source the effective value of a key comes from, for debugging
+     * precedence issues.
+     *
+     * @param key The property key
+     * @return {@code "scope"} if overridden by an active {@link ConfigScope}, {@code "environment"},
+     *         the name of a {@link ConfigSource}, or null if not found
+     */
+    public String getPropertySource(String key) {
+        if (ConfigScope.lookup(key) != null) {
+            return "scope";
         }
+        return snapshot().sourceOf(key);
+    }
+
+    /**
+     * Gets all values whose keys start with a prefix, e.g. {@code "openai."}. The keys are found by
+     * binary search in a sorted index built once per loaded snapshot; values are resolved with
+     * environment variable precedence when read. Keys set only as environment variables are not listed.
+     * As with {@link #getProperty(String)}, the values of a {@link ConfigScope} active on the calling
+     * thread take precedence, and keys set only by the scope are listed; the scope is captured when
+     * the view is created.
+     *
+     * @param prefix The key prefix
+     * @return An unmodifiable view of the currently loaded values in sorted key order; not updated by
+     *         later reloads
+     */
+    public Map<String, String> getByPrefix(String prefix) {
+        return snapshot().withPrefix(prefix, false, ConfigScope.current());
+    }
 
-        return Boolean.parseBoolean(value);
+    /**
+     * Creates a view of one namespace of this configuration, addressed by names relative to it.
+     *
+     * @param namespace The namespace, e.g. {@code "openai"} or {@code "model.gpt-4o"}
+     * @return The view; it follows reloads
+     */
+    public ConfigView getView(String namespace) {
+        return new ConfigView(this, namespace);
+    }
+
+    /**
+     * Creates a view of this configuration with some values overridden, e.g. per tenant.
+     * The view stores only the overrides and reads everything else from this configuration.
+     *
+     * @param overrides The values to override
+     * @return The overlay
+     * @see TenantOverlays
+     */
+    public ConfigOverlay withOverrides(Map<String, String> overrides) {
+        return new ConfigOverlay(this, overrides);
     }
 
     /**
      * Checks if a property exists.
      *
      * @param key The property key
-     * @return true if the property exists in environment or properties file
+     * @return true if the property exists in an active scope, environment or properties file
      */
     public boolean hasProperty(String key) {
-        String envValue = environmentProvider.getEnv(key);
-        if (envValue != null && !envValue.trim().isEmpty()) {
+        if (ConfigScope.lookup(key) != null) {
             return true;
         }
+        ConfigSnapshot current = snapshot();
+        ConfigMetrics enabled = metrics;
+        if (enabled != null) {
+            enabled.recordLookup(current, key, true);
+        }
+        return current.contains(key);
+    }
 
-        return properties.containsKey(key);
+    private void recordDefault(String key) {
+        ConfigMetrics enabled = metrics;
+        if (enabled != null) {
+            enabled.recordDefault(key);
+        }
+    }
+
+    /**
+     * Starts counting lookups per key. Metrics are disabled by default; while disabled, lookups
+     * only pay for a null check.
+     *
+     * @return The metrics, also available from {@link #getMetrics()}
+     */
+    public synchronized ConfigMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new ConfigMetrics();
+        }
+        return metrics;
+    }
+
+    /**
+     * Stops counting lookups. The counters collected so far are discarded.
+     */
+    public synchronized void disableMetrics() {
+        metrics = null;
+    }
+
+    /**
+     * @return The lookup metrics, or null if metrics are disabled
+     */
+    public ConfigMetrics getMetrics() {
+        return metrics;
     }
 }
\ No newline at end of file
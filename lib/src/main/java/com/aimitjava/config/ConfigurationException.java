@@ -0,0 +1,38 @@
+package com.aimitjava.config;
+
+import java.util.List;
+
+/**
+ * Thrown if configuration values are inconsistent, e.g. placeholders referencing each other
+ * in a cycle, or values violating a {@link ConfigSchema}.
+ */
+public class ConfigurationException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    // Not serialized; the message contains the violations as well
+    private final transient List<String> violations;
+
+    /**
+     * @param message The description of the problem
+     */
+    public ConfigurationException(String message) {
+        this(message, List.of());
+    }
+
+    /**
+     * @param message The description of the problem
+     * @param violations The individual problems found, e.g. one per invalid key
+     */
+    public ConfigurationException(String message, List<String> violations) {
+        super(violations.isEmpty() ? message : message + ": " + String.join("; ", violations));
+        this.violations = List.copyOf(violations);
+    }
+
+    /**
+     * @return The individual problems found; empty if the message describes a single problem or
+     *         the exception was deserialized
+     */
+    public List<String> getViolations() {
+        return violations != null ? violations : List.of();
+    }
+}
@@ -0,0 +1,363 @@
+package com.aimitjava.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * The properties table of one snapshot, backed by the values shared with other configurations of
+ * the same file. Single values are read from the shared values; they are copied into the table
+ * only when it is modified or read as a whole, e.g. iterated, so that configurations of the same
+ * file do not each keep a full copy.
+ */
+final class CopyOnWriteProperties extends Properties {
+    private static final long serialVersionUID = 1L;
+
+    // Never modified
+    private final transient Map<String, String> shared;
+    private final transient Map<String, String> view = new View();
+    private transient volatile boolean copied;
+
+    CopyOnWriteProperties(Map<String, String> shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * @return A read-only view of the current values: the shared values until the table is copied,
+     *         the table afterwards, so that modifications by a subclass are seen by lookups
+     */
+    Map<String, String> view() {
+        return view;
+    }
+
+    private void copy() {
+        if (!copied) {
+            synchronized (this) {
+                if (!copied) {
+                    super.putAll(shared);
+                    copied = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getProperty(String key) {
+        return copied ? super.getProperty(key) : shared.get(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return copied ? super.get(key) : shared.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return copied ? super.containsKey(key) : shared.containsKey(key);
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        Object value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public int size() {
+        return copied ? super.size() : shared.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Object setProperty(String key, String value) {
+        copy();
+        return super.setProperty(key, value);
+    }
+
+    @Override
+    public void load(Reader reader) throws IOException {
+        copy();
+        super.load(reader);
+    }
+
+    @Override
+    public void load(InputStream inStream) throws IOException {
+        copy();
+        super.load(inStream);
+    }
+
+    @Override
+    public void loadFromXML(InputStream in) throws IOException {
+        copy();
+        super.loadFromXML(in);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void save(OutputStream out, String comments) {
+        copy();
+        super.save(out, comments);
+    }
+
+    @Override
+    public void store(Writer writer, String comments) throws IOException {
+        copy();
+        super.store(writer, comments);
+    }
+
+    @Override
+    public void store(OutputStream out, String comments) throws IOException {
+        copy();
+        super.store(out, comments);
+    }
+
+    @Override
+    public void storeToXML(OutputStream os, String comment) throws IOException {
+        copy();
+        super.storeToXML(os, comment);
+    }
+
+    @Override
+    public void storeToXML(OutputStream os, String comment, String encoding) throws IOException {
+        copy();
+        super.storeToXML(os, comment, encoding);
+    }
+
+    @Override
+    public void storeToXML(OutputStream os, String comment, Charset charset) throws IOException {
+        copy();
+        super.storeToXML(os, comment, charset);
+    }
+
+    @Override
+    public Enumeration<?> propertyNames() {
+        copy();
+        return super.propertyNames();
+    }
+
+    @Override
+    public Set<String> stringPropertyNames() {
+        copy();
+        return super.stringPropertyNames();
+    }
+
+    @Override
+    public void list(PrintStream out) {
+        copy();
+        super.list(out);
+    }
+
+    @Override
+    public void list(PrintWriter out) {
+        copy();
+        super.list(out);
+    }
+
+    @Override
+    public Enumeration<Object> keys() {
+        copy();
+        return super.keys();
+    }
+
+    @Override
+    public Enumeration<Object> elements() {
+        copy();
+        return super.elements();
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        copy();
+        return super.contains(value);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        copy();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        copy();
+        return super.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        copy();
+        return super.remove(key);
+    }
+
+    @Override
+    public void putAll(Map<?, ?> t) {
+        copy();
+        super.putAll(t);
+    }
+
+    @Override
+    public void clear() {
+        copy();
+        super.clear();
+    }
+
+    @Override
+    public String toString() {
+        copy();
+        return super.toString();
+    }
+
+    @Override
+    public Set<Object> keySet() {
+        copy();
+        return super.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        copy();
+        return super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        copy();
+        return super.entrySet();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        copy();
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        copy();
+        return super.hashCode();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Object, ? super Object> action) {
+        copy();
+        super.forEach(action);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        copy();
+        super.replaceAll(function);
+    }
+
+    @Override
+    public Object putIfAbsent(Object key, Object value) {
+        copy();
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        copy();
+        return super.remove(key, value);
+    }
+
+    @Override
+    public boolean replace(Object key, Object oldValue, Object newValue) {
+        copy();
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public Object replace(Object key, Object value) {
+        copy();
+        return super.replace(key, value);
+    }
+
+    @Override
+    public Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+        copy();
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        copy();
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        copy();
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        copy();
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public Object clone() {
+        copy();
+        return super.clone();
+    }
+
+    // Serialized as a plain table, since the shared values are not part of the serialized form
+    private Object writeReplace() {
+        Properties plain = new Properties();
+        forEach(plain::put);
+        return plain;
+    }
+
+    /**
+     * The values the snapshot looks keys up in, without copying them.
+     */
+    private final class View extends AbstractMap<String, String> {
+        @Override
+        public String get(Object key) {
+            return copied ? (String) CopyOnWriteProperties.super.get(key) : shared.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return copied ? CopyOnWriteProperties.super.containsKey(key) : shared.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return CopyOnWriteProperties.this.size();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return copied ? Collections.unmodifiableSet(ConfigSnapshot.asMap(CopyOnWriteProperties.this).keySet())
+                    : Collections.unmodifiableSet(shared.keySet());
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return copied ? Collections.unmodifiableMap(ConfigSnapshot.asMap(CopyOnWriteProperties.this)).entrySet()
+                    : Collections.unmodifiableMap(shared).entrySet();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.aimitjava.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The non-blank environment variables indexed by their literal names and by their relaxed
+ * property form, e.g. {@code OPENAI_MODEL_NAME} also as {@code openai.model.name}. Built once
+ * from an enumerable environment, so that a lookup in either form is a single probe.
+ */
+final class EnvironmentIndex {
+    private final Map<String, String> values;
+
+    EnvironmentIndex(Map<String, String> environment) {
+        Map<String, String> index = new HashMap<>();
+        // Sorted, so that of OPENAI_MODEL_NAME and openai_model_name the upper-case name wins
+        new TreeMap<>(environment).forEach((name, value) -> {
+            if (EnvironmentProvider.hasContent(value)) {
+                index.putIfAbsent(toPropertyName(name), value);
+            }
+        });
+        // A variable literally named like the key takes precedence over a relaxed match
+        environment.forEach((name, value) -> {
+            if (EnvironmentProvider.hasContent(value)) {
+                index.put(name, value);
+            }
+        });
+        this.values = Map.copyOf(index);
+    }
+
+    /**
+     * @return The value of the variable named like the key or of its relaxed form, or null
+     */
+    String get(String key) {
+        String value = values.get(key);
+        if (value != null || isPropertyName(key)) {
+            return value;
+        }
+        return values.get(toPropertyName(key));
+    }
+
+    /**
+     * Converts a name to the canonical property form: lower case, words separated by dots.
+     */
+    static String toPropertyName(String name) {
+        if (isPropertyName(name)) {
+            return name;
+        }
+        char[] chars = new char[name.length()];
+        for (int i = 0; i < chars.length; i++) {
+            char c = name.charAt(i);
+            chars[i] = c == '_' || c == '-' ? '.' : Character.toLowerCase(c);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Converts a name to the conventional environment variable form, e.g. {@code OPENAI_MODEL_NAME}.
+     */
+    static String toEnvironmentName(String name) {
+        char[] chars = new char[name.length()];
+        for (int i = 0; i < chars.length; i++) {
+            char c = name.charAt(i);
+            chars[i] = c == '.' || c == '-' ? '_' : Character.toUpperCase(c);
+        }
+        return new String(chars);
+    }
+
+    private static boolean isPropertyName(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_' || c == '-' || Character.isUpperCase(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
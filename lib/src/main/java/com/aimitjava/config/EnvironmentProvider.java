@@ -1,12 +1,23 @@
 package com.aimitjava.config;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class EnvironmentProvider {
-    private static EnvironmentProvider instance;
+    // System-Property, mit der getInstance() einen Schnappschuss der Umgebung verwendet
+    public static final String SNAPSHOT_PROPERTY = "config.environment.snapshot";
+
+    // Wird unter der Klassensperre geschrieben und ohne Sperre gelesen
+    private static volatile EnvironmentProvider instance;
     private final EnvironmentReader environmentReader;
+    private final SnapshotEnvironmentReader snapshotReader;
+    // Index für getRelaxedEnv, einmalig aufgebaut; null, solange noch nicht benötigt
+    private volatile EnvironmentIndex environmentIndex;
 
     // Konstruktor mit Dependency Injection
     EnvironmentProvider(EnvironmentReader reader) {
         this.environmentReader = reader;
+        this.snapshotReader = reader instanceof SnapshotEnvironmentReader snapshot ? snapshot : null;
     }
 
     public EnvironmentProvider() {
@@ -14,11 +25,25 @@ public class EnvironmentProvider {
     }
 
     // Statische Fabrikmethode mit Standardimplementierung
+    // Erzeugt die Instanz höchstens einmal, auch bei gleichzeitigem Zugriff; danach ohne Sperre
     public static EnvironmentProvider getInstance() {
-        if (instance == null) {
-            instance = new EnvironmentProvider(new SystemEnvironmentReader());
+        EnvironmentProvider current = instance;
+        if (current != null) {
+            return current;
+        }
+        synchronized (EnvironmentProvider.class) {
+            if (instance == null) {
+                instance = Boolean.getBoolean(SNAPSHOT_PROPERTY)
+                        ? fromSnapshot()
+                        : new EnvironmentProvider(new SystemEnvironmentReader());
+            }
+            return instance;
         }
-        return instance;
+    }
+
+    // Provider mit einmalig erfasster, unveränderlicher Umgebung
+    public static EnvironmentProvider fromSnapshot() {
+        return new EnvironmentProvider(new SnapshotEnvironmentReader());
     }
 
     // Interface für Testbarkeit
@@ -34,16 +59,113 @@ public class EnvironmentProvider {
         }
     }
 
+    // Unveränderlicher Schnappschuss: spart den Wrapper von System.getenv und das wiederholte Trimmen
+    public static class SnapshotEnvironmentReader implements EnvironmentReader {
+        private final Map<String, String> variables;
+        private final Map<String, String> nonBlankVariables;
+
+        public SnapshotEnvironmentReader() {
+            this(System.getenv());
+        }
+
+        SnapshotEnvironmentReader(Map<String, String> environment) {
+            Map<String, String> nonBlank = new HashMap<>();
+            environment.forEach((key, value) -> {
+                if (hasContent(value)) {
+                    nonBlank.put(key, value);
+                }
+            });
+            this.variables = Map.copyOf(environment);
+            this.nonBlankVariables = Map.copyOf(nonBlank);
+        }
+
+        @Override
+        public String getEnvironmentVariable(String key) {
+            return variables.get(key);
+        }
+
+        public String getNonBlankEnvironmentVariable(String key) {
+            return nonBlankVariables.get(key);
+        }
+    }
+
     public String getEnv(String key) {
         return environmentReader.getEnvironmentVariable(key);
     }
 
+    // Liefert die Variable nur, wenn sie nicht leer ist oder nur aus Leerzeichen besteht
+    public String getNonBlankEnv(String key) {
+        if (snapshotReader != null) {
+            return snapshotReader.getNonBlankEnvironmentVariable(key);
+        }
+        String value = environmentReader.getEnvironmentVariable(key);
+        return hasContent(value) ? value : null;
+    }
+
+    // Liefert die Variable auch in Umgebungsvariablen-Schreibweise: openai.model.name <-> OPENAI_MODEL_NAME.
+    // Eine Variable mit exakt diesem Namen hat Vorrang. Ist die Umgebung aufzählbar (System oder
+    // Schnappschuss), genügt dank vorberechnetem Index ein einziger Zugriff.
+    public String getRelaxedEnv(String key) {
+        EnvironmentIndex index = environmentIndex();
+        if (index != null) {
+            return index.get(key);
+        }
+        String value = getNonBlankEnv(key);
+        if (value != null) {
+            return value;
+        }
+        String environmentName = EnvironmentIndex.toEnvironmentName(key);
+        return environmentName.equals(key) ? null : getNonBlankEnv(environmentName);
+    }
+
+    private EnvironmentIndex environmentIndex() {
+        EnvironmentIndex index = environmentIndex;
+        if (index == null) {
+            Map<String, String> variables = enumerableVariables();
+            if (variables == null) {
+                return null;
+            }
+            // Mehrfaches Aufbauen bei gleichzeitigen Aufrufen ist harmlos
+            index = new EnvironmentIndex(variables);
+            environmentIndex = index;
+        }
+        return index;
+    }
+
+    // Nur die mitgelieferten Reader können ihre Variablen aufzählen
+    private Map<String, String> enumerableVariables() {
+        if (snapshotReader != null) {
+            return snapshotReader.nonBlankVariables;
+        }
+        if (environmentReader.getClass() == SystemEnvironmentReader.class) {
+            return System.getenv();
+        }
+        return null;
+    }
+
+    // Entspricht !value.trim().isEmpty(), ohne einen neuen String anzulegen
+    static boolean hasContent(String value) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // Für Testzwecke
     public static void setInstance(EnvironmentProvider provider) {
-        instance = provider;
+        synchronized (EnvironmentProvider.class) {
+            instance = provider;
+        }
     }
 
     public static void reset() {
-        instance = null;
+        synchronized (EnvironmentProvider.class) {
+            instance = null;
+        }
     }
 }
\ No newline at end of file
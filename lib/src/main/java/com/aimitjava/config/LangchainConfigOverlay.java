@@ -0,0 +1,97 @@
+package com.aimitjava.config;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link ConfigOverlay} of a {@link LangchainConfiguration} with its OpenAI getters, e.g. to give
+ * one tenant its own {@code openai.model.name} or {@code openai.temperature}. Overridden
+ * {@code openai.*} keys, including those of named profiles, apply to the model settings as well;
+ * an active {@link ConfigScope} still wins over them.
+ */
+public final class LangchainConfigOverlay extends ConfigOverlay {
+    // The profiles built for one snapshot and API key of the base, rebuilt after a reload or key rotation
+    private volatile LangchainConfiguration.SettingsHolder openAiSettings;
+
+    LangchainConfigOverlay(LangchainConfiguration base, Map<String, String> overrides) {
+        super(base, overrides);
+    }
+
+    @Override
+    public LangchainConfigOverlay withOverrides(Map<String, String> changes) {
+        return (LangchainConfigOverlay) super.withOverrides(changes);
+    }
+
+    @Override
+    public LangchainConfigOverlay withoutOverride(String key) {
+        return (LangchainConfigOverlay) super.withoutOverride(key);
+    }
+
+    @Override
+    public LangchainConfiguration getBase() {
+        return (LangchainConfiguration) super.getBase();
+    }
+
+    /**
+     * @return The overridden API key, or the key of the base configuration
+     * @see LangchainConfiguration#getOpenAiApiKey()
+     */
+    public String getOpenAiApiKey() {
+        String key = override(LangchainConfiguration.OPENAI_API_KEY);
+        return key != null ? key : getBase().getOpenAiApiKey();
+    }
+
+    public String getOpenAiModelName() {
+        return get(LangchainConfiguration.OPENAI_MODEL_NAME);
+    }
+
+    public double getOpenAiTemperature() {
+        Double temperature = get(LangchainConfiguration.OPENAI_TEMPERATURE);
+        if (temperature != null) {
+            return temperature;
+        }
+        // Missing or invalid: parse the raw value so that invalid values still fail
+        return LangchainConfiguration.parseTemperature(getProperty(LangchainConfiguration.OPENAI_TEMPERATURE.getName()));
+    }
+
+    /**
+     * Gets the settings of the default profile.
+     *
+     * @return The settings
+     * @throws ConfigurationException if the profile is incomplete or invalid
+     * @see #getOpenAiSettings(String)
+     */
+    public OpenAiSettings getOpenAiSettings() {
+        return getOpenAiSettings(LangchainConfiguration.DEFAULT_PROFILE);
+    }
+
+    /**
+     * Gets the settings of a model profile with the overrides applied. The profiles are built once
+     * per overlay and loaded snapshot of the base, and again when the API key changes.
+     *
+     * @param profile The profile name
+     * @return The settings
+     * @throws IllegalArgumentException if the profile does not exist
+     * @throws ConfigurationException if the profile is incomplete or invalid
+     * @see LangchainConfiguration#getOpenAiSettings(String)
+     */
+    public OpenAiSettings getOpenAiSettings(String profile) {
+        return LangchainConfiguration.settings(openAiSettingsProfiles(), profile);
+    }
+
+    /**
+     * @return The names of all model profiles, including profiles only defined by overrides
+     */
+    public Set<String> getOpenAiProfiles() {
+        return openAiSettingsProfiles().keySet();
+    }
+
+    private Map<String, LangchainConfiguration.Profile> openAiSettingsProfiles() {
+        LangchainConfiguration.SettingsHolder cached = openAiSettings;
+        LangchainConfiguration.SettingsHolder holder = getBase().openAiSettingsProfiles(getOverrides(), getOpenAiApiKey(), cached);
+        if (holder != cached && holder.snapshot() != null) {
+            openAiSettings = holder;
+        }
+        return holder.profiles();
+    }
+}
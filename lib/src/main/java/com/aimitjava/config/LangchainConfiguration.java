@@ -1,15 +1,91 @@
 package com.aimitjava.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
 public class LangchainConfiguration extends Configuration{
+    /** The name of the profile configured by the {@code openai.*} keys. */
+    public static final String DEFAULT_PROFILE = "default";
+    private static final String PROFILE_PREFIX = "openai.profile.";
+    private static final double DEFAULT_TEMPERATURE = 0.7;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    static final ConfigKey<String> OPENAI_MODEL_NAME = ConfigKey.ofString("openai.model.name");
+    static final ConfigKey<Double> OPENAI_TEMPERATURE = ConfigKey.ofDouble("openai.temperature");
+    static final String OPENAI_API_KEY = "openai.api.key";
+    private static final ConfigKey<Integer> OPENAI_MAX_TOKENS = ConfigKey.ofInt("openai.max.tokens");
+    private static final ConfigKey<Integer> OPENAI_MAX_RETRIES = ConfigKey.ofInt("openai.max.retries");
+    /**
+     * The valid values of the default profile's numeric settings. Set it with
+     * {@link #setSchema(ConfigSchema)} to reject invalid values when loading instead of when reading them.
+     */
+    public static final ConfigSchema OPENAI_SCHEMA = ConfigSchema.builder()
+            .optional(OPENAI_TEMPERATURE, DEFAULT_TEMPERATURE)
+            .range(OPENAI_TEMPERATURE, 0.0, 2.0)
+            .optional(OPENAI_MAX_TOKENS)
+            .check(OPENAI_MAX_TOKENS, value -> value >= 1, "must be positive")
+            .optional(OPENAI_MAX_RETRIES, DEFAULT_MAX_RETRIES)
+            .check(OPENAI_MAX_RETRIES, value -> value >= 0, "must not be negative")
+            .build();
+
+    private volatile CachedSecret openAiApiKey;
+    private volatile KeyPoolHolder openAiApiKeyPool;
+
+    private volatile SettingsHolder openAiSettings;
+
+    // The pool built for one snapshot and single API key (null for numbered keys), rebuilt after a
+    // reload or key rotation
+    private record KeyPoolHolder(ConfigSnapshot snapshot, String apiKey, ApiKeyPool pool) {
+    }
+
+    // The profiles built for one snapshot and API key, rebuilt after a reload or key rotation; the
+    // snapshot is null if built for an active scope
+    record SettingsHolder(ConfigSnapshot snapshot, String apiKey, Map<String, Profile> profiles) {
+    }
+
+    // The settings of one profile, or the reasons why it is incomplete or invalid
+    record Profile(OpenAiSettings settings, List<String> errors) {
+    }
+
     public LangchainConfiguration() {
         super();
     }
 
+    /**
+     * Gets the singleton instance. The instance is created at most once, even if several threads
+     * ask for it at the same time; once created, this method does not lock. It is shared with
+     * {@link Configuration#getInstance()}: a plain singleton created there before is replaced by a
+     * {@code LangchainConfiguration} taking over its values, so the file is still loaded only once.
+     * <p>
+     * The declared return type stays {@link Configuration} for binary compatibility with clients
+     * compiled against earlier versions; the returned instance is always a
+     * {@code LangchainConfiguration} and can be cast safely.
+     *
+     * @return The singleton instance
+     */
     public static Configuration getInstance() {
-        if (instance == null) {
-            instance = new LangchainConfiguration();
+        Configuration current = instance;
+        if (current instanceof LangchainConfiguration) {
+            return current;
+        }
+        synchronized (Configuration.class) {
+            if (!(instance instanceof LangchainConfiguration)) {
+                instance = instance != null ? new LangchainConfiguration(instance) : new LangchainConfiguration();
+            }
+            return instance;
         }
-        return instance;
+    }
+
+    private LangchainConfiguration(Configuration loaded) {
+        super(loaded);
     }
 
     public LangchainConfiguration(String propertiesFile) {
@@ -20,20 +96,345 @@ public class LangchainConfiguration extends Configuration{
         super(propertiesFile, environmentProvider);
     }
 
+    public LangchainConfiguration(List<ConfigSource> sources) {
+        super(sources);
+    }
+
+    LangchainConfiguration(List<ConfigSource> sources, EnvironmentProvider environmentProvider) {
+        super(sources, environmentProvider);
+    }
+
+    /**
+     * Resolves the OpenAI API key from a secret store and caches it. The environment variable
+     * {@code OPENAI_API_KEY} still takes precedence over the resolver, the properties are used
+     * if the resolver has no value. The resolved key is refreshed asynchronously before the TTL
+     * expires, so {@link #getOpenAiApiKey()} does not wait for the secret store after the first call
+     * while refreshes succeed. A key is never used after its TTL: if no refresh succeeded in time,
+     * the next call resolves the key synchronously and throws {@link IllegalStateException} if the
+     * secret store cannot be reached.
+     *
+     * @param resolver The resolver, queried for {@code openai.api.key}; null to read the key on every call
+     * @param ttl How long a resolved key may be used
+     */
+    public void setSecretResolver(SecretResolver resolver, Duration ttl) {
+        openAiApiKey = resolver == null ? null : new CachedSecret(() -> {
+            String key = environmentProvider.getEnv("OPENAI_API_KEY");
+            if (!EnvironmentProvider.hasContent(key)) {
+                key = resolver.resolve(OPENAI_API_KEY);
+            }
+            if (!EnvironmentProvider.hasContent(key)) {
+                key = snapshot().sourceValue(OPENAI_API_KEY);
+            }
+            return key;
+        }, ttl);
+    }
+
     public String getOpenAiApiKey() {
+        String scoped = ConfigScope.lookup(OPENAI_API_KEY);
+        if (scoped != null) {
+            return scoped;
+        }
+        CachedSecret secret = openAiApiKey;
+        if (secret != null) {
+            return secret.get();
+        }
         String key = environmentProvider.getEnv("OPENAI_API_KEY");
-        if (key == null || key.trim().isEmpty()) {
-            key = properties.getProperty("openai.api.key");
+        if (!EnvironmentProvider.hasContent(key)) {
+            key = snapshot().sourceValue(OPENAI_API_KEY);
         }
         return key;
     }
 
+    /**
+     * Gets all configured OpenAI API keys as a pool to rotate through. Keys are numbered from 1,
+     * either as environment variables {@code OPENAI_API_KEY_1}, {@code OPENAI_API_KEY_2}, ...
+     * or as properties {@code openai.api.key.1}, {@code openai.api.key.2}, ...; environment
+     * variables take precedence as a whole. An optional weight is read from
+     * {@code OPENAI_API_KEY_<n>_WEIGHT} or {@code openai.api.key.<n>.weight}. Without numbered
+     * keys the pool contains the single key of {@link #getOpenAiApiKey()}.
+     * <p>
+     * The pool is built once per loaded snapshot, and again when the single key changes, e.g. after
+     * the secret resolver rotated it; throttled keys stay throttled across reloads.
+     *
+     * @return The pool
+     * @throws IllegalStateException if no API key is configured
+     */
+    public ApiKeyPool getOpenAiApiKeyPool() {
+        ConfigSnapshot current = snapshot();
+        KeyPoolHolder holder = openAiApiKeyPool;
+        if (holder != null && holder.snapshot() == current
+                && (holder.apiKey() == null || holder.apiKey().equals(getOpenAiApiKey()))) {
+            return holder.pool();
+        }
+        String apiKey = null;
+        List<ApiKeyPool.WeightedKey> keys = numberedApiKeys(current);
+        if (keys.isEmpty()) {
+            apiKey = getOpenAiApiKey();
+            if (!EnvironmentProvider.hasContent(apiKey)) {
+                throw new IllegalStateException("No OpenAI API key configured");
+            }
+            keys = List.of(new ApiKeyPool.WeightedKey(apiKey, 1));
+        }
+        ApiKeyPool pool = ApiKeyPool.weighted(keys);
+        if (holder != null) {
+            pool.inheritThrottles(holder.pool());
+        }
+        openAiApiKeyPool = new KeyPoolHolder(current, apiKey, pool);
+        return pool;
+    }
+
+    private List<ApiKeyPool.WeightedKey> numberedApiKeys(ConfigSnapshot current) {
+        List<ApiKeyPool.WeightedKey> keys = new ArrayList<>();
+        for (int n = 1; ; n++) {
+            String key = environmentProvider.getNonBlankEnv("OPENAI_API_KEY_" + n);
+            if (key == null) {
+                break;
+            }
+            keys.add(new ApiKeyPool.WeightedKey(key, weight(environmentProvider.getNonBlankEnv("OPENAI_API_KEY_" + n + "_WEIGHT"))));
+        }
+        if (!keys.isEmpty()) {
+            return keys;
+        }
+        for (int n = 1; ; n++) {
+            String key = current.sourceValue(OPENAI_API_KEY + "." + n);
+            if (!EnvironmentProvider.hasContent(key)) {
+                break;
+            }
+            keys.add(new ApiKeyPool.WeightedKey(key.trim(), weight(current.sourceValue(OPENAI_API_KEY + "." + n + ".weight"))));
+        }
+        return keys;
+    }
+
+    private static int weight(String value) {
+        if (value == null) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid API key weight: " + value, e);
+        }
+    }
+
+    /**
+     * Gets the settings of the default profile.
+     *
+     * @return The settings
+     * @throws ConfigurationException if the profile is incomplete or invalid
+     * @see #getOpenAiSettings(String)
+     */
+    public OpenAiSettings getOpenAiSettings() {
+        return getOpenAiSettings(DEFAULT_PROFILE);
+    }
+
+    /**
+     * Gets the settings of a model profile. The default profile is configured by
+     * {@code openai.model.name}, {@code openai.temperature}, {@code openai.max.tokens},
+     * {@code openai.timeout}, {@code openai.max.retries} and {@code openai.base.url}; a named
+     * profile overrides any of them as {@code openai.profile.<name>.model.name} etc. and inherits
+     * the rest, including the API key unless {@code openai.profile.<name>.api.key} is set.
+     * <p>
+     * All profiles are built once per loaded snapshot, and again when the API key changes; the
+     * same instances are returned until then. Each profile is validated on its own, so an
+     * incomplete profile does not affect the others. Validation errors are kept as well, so an
+     * invalid profile is not rebuilt on every call either.
+     *
+     * @param profile The profile name
+     * @return The settings
+     * @throws IllegalArgumentException if the profile does not exist
+     * @throws ConfigurationException if the profile is incomplete or invalid
+     */
+    public OpenAiSettings getOpenAiSettings(String profile) {
+        return settings(openAiSettingsProfiles(), profile);
+    }
+
+    static OpenAiSettings settings(Map<String, Profile> profiles, String profile) {
+        Profile built = profiles.get(profile);
+        if (built == null) {
+            throw new IllegalArgumentException("Unknown OpenAI profile: " + profile);
+        }
+        if (!built.errors().isEmpty()) {
+            throw new ConfigurationException("Invalid OpenAI settings of profile " + profile, built.errors());
+        }
+        return built.settings();
+    }
+
+    /**
+     * @return The names of all model profiles, including {@value #DEFAULT_PROFILE} and profiles
+     *         that are incomplete or invalid
+     */
+    public Set<String> getOpenAiProfiles() {
+        return openAiSettingsProfiles().keySet();
+    }
+
+    private Map<String, Profile> openAiSettingsProfiles() {
+        SettingsHolder cached = openAiSettings;
+        SettingsHolder holder = openAiSettingsProfiles(Map.of(), getOpenAiApiKey(), cached);
+        if (holder != cached && holder.snapshot() != null) {
+            openAiSettings = holder;
+        }
+        return holder.profiles();
+    }
+
+    /**
+     * Builds the profiles with overrides, e.g. of a tenant, on top of the loaded values. Values of
+     * an active scope win over the overrides.
+     *
+     * @param overrides The overridden values
+     * @param apiKey The API key of the default profile
+     * @param cached The profiles built before with the same overrides, returned if still valid
+     * @return The profiles, with a null snapshot if built for an active scope and not to be cached
+     */
+    SettingsHolder openAiSettingsProfiles(Map<String, String> overrides, String apiKey, SettingsHolder cached) {
+        ConfigSnapshot current = snapshot();
+        Map<String, String> scoped = ConfigScope.current();
+        boolean scopedOpenAi = scoped != null && overridesOpenAi(scoped);
+        // Checked before creating any resolver, so that reading cached profiles allocates nothing
+        if (!scopedOpenAi && cached != null && cached.snapshot() == current && Objects.equals(cached.apiKey(), apiKey)) {
+            return cached;
+        }
+        Function<String, String> resolve = overrides.isEmpty() ? current::resolve : key -> {
+            String value = overrides.get(key);
+            return value != null ? value : current.resolve(key);
+        };
+        if (scopedOpenAi) {
+            // Built on every call, so that scoped values never reach the shared cache
+            return new SettingsHolder(null, apiKey, buildProfiles(current, overrides, apiKey, key -> {
+                String value = scoped.get(key);
+                return value != null ? value : resolve.apply(key);
+            }));
+        }
+        return new SettingsHolder(current, apiKey, buildProfiles(current, overrides, apiKey, resolve));
+    }
+
+    private static boolean overridesOpenAi(Map<String, String> scoped) {
+        for (String key : scoped.keySet()) {
+            if (key.startsWith("openai.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param resolve Resolves a key with environment variable precedence
+     */
+    private Map<String, Profile> buildProfiles(ConfigSnapshot current, Map<String, String> overrides, String apiKey,
+                                               Function<String, String> resolve) {
+        Map<String, Profile> profiles = new TreeMap<>();
+        profiles.put(DEFAULT_PROFILE, buildProfile(resolve, DEFAULT_PROFILE, "openai.", apiKey));
+        for (Collection<String> keys : List.of(current.keysWithPrefix(PROFILE_PREFIX), overrides.keySet())) {
+            for (String key : keys) {
+                int end = key.startsWith(PROFILE_PREFIX) ? key.indexOf('.', PROFILE_PREFIX.length()) : -1;
+                String name = end < 0 ? null : key.substring(PROFILE_PREFIX.length(), end);
+                if (name != null && !name.isEmpty() && !profiles.containsKey(name)) {
+                    profiles.put(name, buildProfile(resolve, name, PROFILE_PREFIX + name + ".", apiKey));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    private Profile buildProfile(Function<String, String> resolve, String profile, String prefix, String defaultApiKey) {
+        List<String> errors = new ArrayList<>();
+        ProfileReader reader = new ProfileReader(resolve, prefix, errors);
+        // The default profile's key follows getOpenAiApiKey(): environment, secret resolver, properties
+        String apiKey = DEFAULT_PROFILE.equals(profile) ? null : resolve.apply(prefix + "api.key");
+        if (apiKey == null) {
+            apiKey = defaultApiKey;
+        }
+        if (!EnvironmentProvider.hasContent(apiKey)) {
+            errors.add(profile + ": no API key");
+        }
+        String modelName = reader.string("model.name");
+        if (modelName == null) {
+            errors.add(profile + ": no model name");
+        }
+        double temperature = reader.parse("temperature", Double::valueOf, DEFAULT_TEMPERATURE);
+        if (!(temperature >= 0 && temperature <= 2)) {
+            errors.add(profile + ": temperature must be between 0 and 2: " + temperature);
+        }
+        Integer maxTokens = reader.parse("max.tokens", Integer::valueOf, null);
+        if (maxTokens != null && maxTokens < 1) {
+            errors.add(profile + ": max.tokens must be positive: " + maxTokens);
+        }
+        Duration timeout = reader.parse("timeout", ConfigKey::parseDuration, DEFAULT_TIMEOUT);
+        if (timeout.isNegative() || timeout.isZero()) {
+            errors.add(profile + ": timeout must be positive: " + timeout);
+        }
+        int maxRetries = reader.parse("max.retries", Integer::valueOf, DEFAULT_MAX_RETRIES);
+        if (maxRetries < 0) {
+            errors.add(profile + ": max.retries must not be negative: " + maxRetries);
+        }
+        if (!errors.isEmpty()) {
+            return new Profile(null, List.copyOf(errors));
+        }
+        return new Profile(new OpenAiSettings(profile, apiKey, modelName, temperature, maxTokens, timeout, maxRetries,
+                reader.string("base.url")), List.of());
+    }
+
+    /**
+     * Reads the settings of one profile, falling back to the default profile's keys.
+     */
+    private static final class ProfileReader {
+        private final Function<String, String> resolve;
+        private final String prefix;
+        private final List<String> errors;
+
+        ProfileReader(Function<String, String> resolve, String prefix, List<String> errors) {
+            this.resolve = resolve;
+            this.prefix = prefix;
+            this.errors = errors;
+        }
+
+        String string(String name) {
+            String value = resolve.apply(prefix + name);
+            if (value == null) {
+                value = resolve.apply("openai." + name);
+            }
+            return value != null ? value.trim() : null;
+        }
+
+        <T> T parse(String name, Function<String, T> parser, T defaultValue) {
+            String value = string(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return parser.apply(value);
+            } catch (IllegalArgumentException e) {
+                errors.add(prefix + name + " is invalid: " + value);
+                return defaultValue;
+            }
+        }
+    }
+
+    /**
+     * Creates a view of this configuration with some values overridden, e.g. per tenant, that
+     * applies the overrides to the OpenAI getters and model profiles as well.
+     *
+     * @param overrides The values to override
+     * @return The overlay
+     */
+    @Override
+    public LangchainConfigOverlay withOverrides(Map<String, String> overrides) {
+        return new LangchainConfigOverlay(this, overrides);
+    }
+
     public String getOpenAiModelName() {
-        return getProperty("openai.model.name");
+        return get(OPENAI_MODEL_NAME);
     }
 
     public double getOpenAiTemperature() {
-        String temp = getProperty("openai.temperature");
-        return temp != null ? Double.parseDouble(temp) : 0.7;
+        Double temperature = get(OPENAI_TEMPERATURE);
+        if (temperature != null) {
+            return temperature;
+        }
+        // Missing or invalid: parse the raw value so that invalid values still fail
+        return parseTemperature(getProperty(OPENAI_TEMPERATURE.getName()));
+    }
+
+    static double parseTemperature(String temp) {
+        return temp != null ? Double.parseDouble(temp) : DEFAULT_TEMPERATURE;
     }
 }
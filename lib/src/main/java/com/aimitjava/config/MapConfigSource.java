@@ -0,0 +1,31 @@
+package com.aimitjava.config;
+
+import java.util.Map;
+
+/**
+ * Fixed in-memory values.
+ */
+final class MapConfigSource implements ConfigSource {
+    private final String name;
+    private final Map<String, String> values;
+
+    MapConfigSource(String name, Map<String, String> values) {
+        this.name = name;
+        this.values = Map.copyOf(values);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Map<String, String> load() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "MapConfigSource[" + name + "]";
+    }
+}
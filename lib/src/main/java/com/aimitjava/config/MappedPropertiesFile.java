@@ -0,0 +1,490 @@
+package com.aimitjava.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A read-only view of a memory-mapped properties file. A single pass over the mapping indexes the
+ * keys and the offsets of their values; a value is decoded from the mapping on first access and
+ * cached. The syntax is that of {@link java.util.Properties#load(java.io.InputStream)}: ISO 8859-1
+ * with {@code &#92;uXXXX} escapes, comments, line continuations and {@code =}, {@code :} or
+ * whitespace separators. As with {@code Properties}, the last occurrence of a duplicate key wins.
+ */
+final class MappedPropertiesFile extends AbstractMap<String, String> {
+    private final ByteBuffer buffer;
+    private final String[] keys;
+    private final int[] valueStarts;
+    private final int[] valueEnds;
+    // Whether the raw value contains "${" or an escape that may decode to it
+    private final boolean[] placeholders;
+    // Open-addressing hash table of entry index + 1; 0 marks a free slot
+    private final int[] table;
+    private final int size;
+    // Decoded values by entry index; racing threads decode and store equal strings
+    private final String[] values;
+
+    private MappedPropertiesFile(ByteBuffer buffer, Indexer indexer) {
+        this.buffer = buffer;
+        this.keys = Arrays.copyOf(indexer.keys, indexer.count);
+        this.valueStarts = Arrays.copyOf(indexer.valueStarts, indexer.count);
+        this.valueEnds = Arrays.copyOf(indexer.valueEnds, indexer.count);
+        this.placeholders = Arrays.copyOf(indexer.placeholders, indexer.count);
+        this.values = new String[indexer.count];
+        this.table = new int[Math.max(2, Integer.highestOneBit(Math.max(1, indexer.count)) << 2)];
+
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = slotOf(keys[i]);
+            if (table[slot] == 0) {
+                distinct++;
+            }
+            // A later duplicate replaces the earlier entry, as in Properties.load
+            table[slot] = i + 1;
+        }
+        this.size = distinct;
+    }
+
+    /**
+     * Maps a properties file and indexes its keys. The file should be replaced atomically
+     * (e.g. written to a temporary file and renamed) rather than modified in place, since
+     * values are read from the mapping after this method returns.
+     *
+     * @param path The file to map
+     * @return The indexed file
+     * @throws IOException if the file cannot be read, is larger than 2 GB or contains a malformed
+     *                     {@code &#92;uXXXX} escape
+     */
+    static MappedPropertiesFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large to be mapped (" + length + " bytes)");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            Indexer indexer = new Indexer(buffer);
+            try {
+                indexer.run();
+            } catch (IllegalArgumentException e) {
+                throw new IOException(path + ": " + e.getMessage(), e);
+            }
+            return new MappedPropertiesFile(buffer, indexer);
+        }
+    }
+
+    private int slotOf(String key) {
+        int mask = table.length - 1;
+        int h = key.hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (table[slot] != 0 && !keys[table[slot] - 1].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String name)) {
+            return -1;
+        }
+        return table[slotOf(name)] - 1;
+    }
+
+    private String valueAt(int index) {
+        String value = values[index];
+        if (value == null) {
+            value = decodeValue(buffer, valueStarts[index], valueEnds[index]);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * @return true if the value of the key may contain a placeholder, decided without decoding it
+     */
+    boolean mayContainPlaceholder(String key) {
+        int index = indexOf(key);
+        return index >= 0 && placeholders[index];
+    }
+
+    /**
+     * @return The keys whose values may contain placeholders
+     */
+    List<String> placeholderKeys() {
+        List<String> candidates = new ArrayList<>();
+        for (int slot : table) {
+            if (slot != 0 && placeholders[slot - 1]) {
+                candidates.add(keys[slot - 1]);
+            }
+        }
+        return candidates;
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The keys; iterating them does not decode any value
+     */
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new EntryIterator<>() {
+                    @Override
+                    String element(int index) {
+                        return keys[index];
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator<>() {
+                    @Override
+                    Entry<String, String> element(int index) {
+                        return new SimpleImmutableEntry<>(keys[index], valueAt(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private abstract class EntryIterator<E> implements Iterator<E> {
+        private int slot = advance(0);
+
+        private int advance(int from) {
+            while (from < table.length && table[from] == 0) {
+                from++;
+            }
+            return from;
+        }
+
+        abstract E element(int index);
+
+        @Override
+        public boolean hasNext() {
+            return slot < table.length;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E element = element(table[slot] - 1);
+            slot = advance(slot + 1);
+            return element;
+        }
+    }
+
+    /**
+     * Decodes a value from its raw bytes, joining continuation lines and resolving escapes.
+     *
+     * @param start The offset of the first character of the value
+     * @param end The offset after the last character of the logical line
+     */
+    private static String decodeValue(ByteBuffer buffer, int start, int end) {
+        char[] line = new char[end - start];
+        int length = 0;
+        boolean skipWhiteSpace = false;
+        boolean precedingBackslash = false;
+        for (int position = start; position < end; position++) {
+            char c = (char) (buffer.get(position) & 0xFF);
+            if (skipWhiteSpace) {
+                if (c == ' ' || c == '\t' || c == '\f') {
+                    continue;
+                }
+                skipWhiteSpace = false;
+            }
+            if (c == '\n' || c == '\r') {
+                // Inside a logical line every line break is a continuation; drop its backslash
+                length--;
+                skipWhiteSpace = true;
+                precedingBackslash = false;
+                if (c == '\r' && position + 1 < end && buffer.get(position + 1) == '\n') {
+                    position++;
+                }
+                continue;
+            }
+            line[length++] = c;
+            precedingBackslash = c == '\\' && !precedingBackslash;
+        }
+        if (precedingBackslash) {
+            // A backslash at the end of the file continues nothing
+            length--;
+        }
+        return unescape(line, 0, length);
+    }
+
+    private static String unescape(char[] in, int offset, int length) {
+        char[] out = new char[length];
+        int outLength = 0;
+        int end = offset + length;
+        while (offset < end) {
+            char c = in[offset++];
+            if (c == '\\' && offset < end) {
+                c = in[offset++];
+                if (c == 'u') {
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = offset < end ? Character.digit(in[offset++], 16) : -1;
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    c = (char) value;
+                } else {
+                    c = switch (c) {
+                        case 't' -> '\t';
+                        case 'r' -> '\r';
+                        case 'n' -> '\n';
+                        case 'f' -> '\f';
+                        default -> c;
+                    };
+                }
+            }
+            out[outLength++] = c;
+        }
+        return new String(out, 0, outLength);
+    }
+
+    /**
+     * Streams over the mapping once, following the line rules of {@code Properties.load}.
+     * Only keys are decoded; values are recorded as raw offsets.
+     */
+    private static final class Indexer {
+        private final ByteBuffer buffer;
+        private final int limit;
+        // The current logical line without continuations, and the raw offset of each character
+        private char[] line = new char[256];
+        private int[] offsets = new int[256];
+        private int length;
+        private int lineEnd;
+
+        private String[] keys = new String[64];
+        private int[] valueStarts = new int[64];
+        private int[] valueEnds = new int[64];
+        private boolean[] placeholders = new boolean[64];
+        private int count;
+
+        Indexer(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+        }
+
+        void run() {
+            int position = 0;
+            while ((position = readLine(position)) >= 0) {
+                addEntry();
+            }
+        }
+
+        /**
+         * Reads the next logical line into {@link #line}.
+         *
+         * @return The offset after the line, or -1 at the end of the file
+         */
+        private int readLine(int position) {
+            length = 0;
+            boolean skipWhiteSpace = true;
+            boolean isCommentLine = false;
+            boolean isNewLine = true;
+            boolean appendedLineBegin = false;
+            boolean precedingBackslash = false;
+            boolean skipLF = false;
+
+            while (true) {
+                if (position >= limit) {
+                    if (length == 0 || isCommentLine) {
+                        return -1;
+                    }
+                    if (precedingBackslash) {
+                        length--;
+                    }
+                    lineEnd = limit;
+                    return position;
+                }
+                char c = (char) (buffer.get(position++) & 0xFF);
+                if (skipLF) {
+                    skipLF = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                if (skipWhiteSpace) {
+                    if (c == ' ' || c == '\t' || c == '\f') {
+                        continue;
+                    }
+                    if (!appendedLineBegin && (c == '\r' || c == '\n')) {
+                        continue;
+                    }
+                    skipWhiteSpace = false;
+                    appendedLineBegin = false;
+                }
+                if (isNewLine) {
+                    isNewLine = false;
+                    if (c == '#' || c == '!') {
+                        isCommentLine = true;
+                        continue;
+                    }
+                }
+
+                if (c != '\n' && c != '\r') {
+                    if (!isCommentLine) {
+                        append(c, position - 1);
+                        precedingBackslash = c == '\\' && !precedingBackslash;
+                    }
+                    continue;
+                }
+                if (isCommentLine || length == 0) {
+                    isCommentLine = false;
+                    isNewLine = true;
+                    skipWhiteSpace = true;
+                    length = 0;
+                    continue;
+                }
+                if (precedingBackslash) {
+                    length--;
+                    precedingBackslash = false;
+                    skipWhiteSpace = true;
+                    appendedLineBegin = true;
+                    skipLF = c == '\r';
+                    continue;
+                }
+                lineEnd = position - 1;
+                if (c == '\r' && position < limit && buffer.get(position) == '\n') {
+                    position++;
+                }
+                return position;
+            }
+        }
+
+        private void append(char c, int offset) {
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+                offsets = Arrays.copyOf(offsets, length * 2);
+            }
+            line[length] = c;
+            offsets[length] = offset;
+            length++;
+        }
+
+        private void addEntry() {
+            int keyLength = 0;
+            int valueStart = length;
+            boolean hasSeparator = false;
+            boolean precedingBackslash = false;
+            while (keyLength < length) {
+                char c = line[keyLength];
+                if ((c == '=' || c == ':') && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    hasSeparator = true;
+                    break;
+                } else if ((c == ' ' || c == '\t' || c == '\f') && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    break;
+                }
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                keyLength++;
+            }
+            while (valueStart < length) {
+                char c = line[valueStart];
+                if (c != ' ' && c != '\t' && c != '\f') {
+                    if (!hasSeparator && (c == '=' || c == ':')) {
+                        hasSeparator = true;
+                    } else {
+                        break;
+                    }
+                }
+                valueStart++;
+            }
+            boolean placeholder = checkEscapes(valueStart);
+
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                valueStarts = Arrays.copyOf(valueStarts, count * 2);
+                valueEnds = Arrays.copyOf(valueEnds, count * 2);
+                placeholders = Arrays.copyOf(placeholders, count * 2);
+            }
+            keys[count] = unescape(line, 0, keyLength);
+            valueStarts[count] = valueStart < length ? offsets[valueStart] : lineEnd;
+            valueEnds[count] = lineEnd;
+            placeholders[count] = placeholder;
+            count++;
+        }
+
+        /**
+         * Fails the load for malformed {@code &#92;uXXXX} escapes in a value, which would otherwise
+         * only surface on first access.
+         *
+         * @return true if the value may contain a placeholder
+         */
+        private boolean checkEscapes(int from) {
+            boolean placeholder = false;
+            for (int i = from; i < length; i++) {
+                if (line[i] == '$' && i + 1 < length && line[i + 1] == '{') {
+                    placeholder = true;
+                }
+                if (line[i] != '\\') {
+                    continue;
+                }
+                i++;
+                if (i < length && line[i] == 'u') {
+                    // An escaped character might be part of a placeholder
+                    placeholder = true;
+                    for (int digit = 1; digit <= 4; digit++) {
+                        if (i + digit >= length || Character.digit(line[i + digit], 16) < 0) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding");
+                        }
+                    }
+                }
+            }
+            return placeholder;
+        }
+    }
+}
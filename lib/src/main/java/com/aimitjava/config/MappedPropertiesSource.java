@@ -0,0 +1,40 @@
+package com.aimitjava.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * A properties file on the file system that is memory-mapped instead of read onto the heap.
+ */
+final class MappedPropertiesSource implements ConfigSource {
+    private final Path path;
+
+    MappedPropertiesSource(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public String getName() {
+        return path.toString();
+    }
+
+    @Override
+    public Map<String, String> load() throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        return MappedPropertiesFile.open(path);
+    }
+
+    @Override
+    public Path getWatchPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedPropertiesSource[" + path + "]";
+    }
+}
@@ -0,0 +1,29 @@
+package com.aimitjava.config;
+
+import java.time.Duration;
+
+/**
+ * Validated, immutable settings of one OpenAI model profile, built once per loaded configuration
+ * by {@link LangchainConfiguration#getOpenAiSettings(String)}. Reading the settings for a request
+ * is a field read; nothing is parsed or allocated.
+ *
+ * @param profile The profile name, {@value LangchainConfiguration#DEFAULT_PROFILE} for the default profile
+ * @param apiKey The API key
+ * @param modelName The model, e.g. {@code gpt-4o-mini}
+ * @param temperature The sampling temperature between 0 and 2
+ * @param maxTokens The maximum number of tokens to generate, or null for the model's limit
+ * @param timeout The request timeout
+ * @param maxRetries The number of retries of a failed request
+ * @param baseUrl The API endpoint, or null for the OpenAI default
+ */
+public record OpenAiSettings(String profile, String apiKey, String modelName, double temperature,
+                             Integer maxTokens, Duration timeout, int maxRetries, String baseUrl) {
+
+    @Override
+    public String toString() {
+        // Never print the API key
+        return "OpenAiSettings[profile=" + profile + ", modelName=" + modelName + ", temperature=" + temperature
+                + ", maxTokens=" + maxTokens + ", timeout=" + timeout + ", maxRetries=" + maxRetries
+                + ", baseUrl=" + baseUrl + "]";
+    }
+}
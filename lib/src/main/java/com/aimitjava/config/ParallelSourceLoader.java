@@ -0,0 +1,103 @@
+package com.aimitjava.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Loads several sources concurrently on virtual threads, so slow file systems or remote
+ * sources do not add up at startup. The number of concurrent loads is bounded, and results
+ * are returned in source order so that merging them stays deterministic.
+ */
+final class ParallelSourceLoader {
+    static final int MAX_CONCURRENT_LOADS = 8;
+
+    private ParallelSourceLoader() {
+    }
+
+    /**
+     * Outcome of loading one source.
+     *
+     * @param values The values, or null if the source is missing or failed
+     */
+    record Result(ConfigSource source, Map<String, String> values, ConfigLoadReport.SourceLoad load) {
+    }
+
+    /**
+     * Loads all sources.
+     *
+     * @return One result per source, in the order of the given list
+     */
+    static List<Result> loadAll(List<ConfigSource> sources) {
+        if (sources.size() <= 1) {
+            return sources.stream().map(ParallelSourceLoader::load).toList();
+        }
+
+        Semaphore permits = new Semaphore(MAX_CONCURRENT_LOADS);
+        List<Future<Result>> futures = new ArrayList<>(sources.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ConfigSource source : sources) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return load(source);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        List<Result> results = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            results.add(join(futures.get(i), sources.get(i)));
+        }
+        return results;
+    }
+
+    private static Result join(Future<Result> future, ConfigSource source) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // load() reports exceptions of the source itself; only errors end up here
+            System.err.println("Warning: Could not load " + source.getName() + ": " + e.getCause());
+            return failed(source, Duration.ZERO);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(source, Duration.ZERO);
+        }
+    }
+
+    private static Result load(ConfigSource source) {
+        long start = System.nanoTime();
+        try {
+            Map<String, String> values = source.load();
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            if (values == null) {
+                return new Result(source, null,
+                        new ConfigLoadReport.SourceLoad(source.getName(), ConfigLoadReport.Status.MISSING, duration, 0));
+            }
+            return new Result(source, values,
+                    new ConfigLoadReport.SourceLoad(source.getName(), ConfigLoadReport.Status.LOADED, duration, values.size()));
+        } catch (IOException e) {
+            System.err.println("Warning: Could not load " + source.getName());
+            return failed(source, Duration.ofNanos(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            // A bug in the source; failed alike whether it was loaded alone or with others
+            System.err.println("Warning: Could not load " + source.getName() + ": " + e);
+            return failed(source, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private static Result failed(ConfigSource source, Duration duration) {
+        return new Result(source, null,
+                new ConfigLoadReport.SourceLoad(source.getName(), ConfigLoadReport.Status.FAILED, duration, 0));
+    }
+}
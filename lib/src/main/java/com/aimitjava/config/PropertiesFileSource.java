@@ -0,0 +1,150 @@
+package com.aimitjava.config;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A properties file, looked up on the classpath first and then on the file system.
+ */
+final class PropertiesFileSource implements ConfigSource {
+    private final String propertiesFile;
+    private final ClassLoader classLoader;
+
+    PropertiesFileSource(String propertiesFile, ClassLoader classLoader) {
+        this.propertiesFile = propertiesFile;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public String getName() {
+        return propertiesFile;
+    }
+
+    /**
+     * Reads the file, or returns the values shared by all configurations of the file if it has
+     * not changed since it was last read.
+     */
+    @Override
+    public Map<String, String> load() throws IOException {
+        return ConfigRegistry.shared(classLoader, propertiesFile, getWatchPath(), this::read);
+    }
+
+    /**
+     * Forgets the shared values, so that the next load reads the file.
+     */
+    void invalidate() {
+        ConfigRegistry.invalidate(propertiesFile);
+    }
+
+    /**
+     * @return The values, unmodifiable because they are shared by all configurations of the file
+     */
+    private Map<String, String> read() throws IOException {
+        Map<String, String> precompiled = loadSnapshot();
+        if (precompiled != null) {
+            return Collections.unmodifiableMap(precompiled);
+        }
+        try (InputStream input = open()) {
+            if (input == null) {
+                return null;
+            }
+            Properties loaded = new Properties();
+            loaded.load(input);
+            return Collections.unmodifiableMap(ConfigSnapshot.asMap(loaded));
+        }
+    }
+
+    /**
+     * Reads the precompiled snapshot of the file, if there is one next to the file on the
+     * classpath. A snapshot from another classpath entry, e.g. a dependency, is never used.
+     *
+     * @return The values, or null to parse the properties file instead
+     */
+    private Map<String, String> loadSnapshot() {
+        URL properties = classLoader.getResource(propertiesFile);
+        if (properties == null) {
+            return null;
+        }
+        URL snapshot;
+        try {
+            snapshot = URI.create(PropertiesSnapshot.snapshotName(properties.toString())).toURL();
+        } catch (IllegalArgumentException | MalformedURLException e) {
+            return null;
+        }
+        try {
+            byte[] data;
+            try (InputStream input = snapshot.openStream()) {
+                data = input.readAllBytes();
+            } catch (FileNotFoundException e) {
+                return null;
+            }
+            // The properties file may have been edited or filtered after the snapshot was compiled;
+            // checked by its metadata, so that the file itself is not read as well
+            PropertiesSnapshot.Stamp source = PropertiesSnapshot.Stamp.of(properties);
+            if (source == null) {
+                return null;
+            }
+            Map<String, String> values = PropertiesSnapshot.read(data, source);
+            if (values == null) {
+                System.err.println("Warning: Ignoring outdated " + snapshot + ", " + propertiesFile + " has changed");
+            }
+            return values;
+        } catch (IOException e) {
+            System.err.println("Warning: Could not read " + snapshot + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private InputStream open() throws IOException {
+        InputStream input = classLoader.getResourceAsStream(propertiesFile);
+        if (input != null) {
+            return input;
+        }
+        Path path = fileSystemPath();
+        return path != null ? Files.newInputStream(path) : null;
+    }
+
+    private Path fileSystemPath() {
+        try {
+            Path path = Path.of(propertiesFile);
+            return Files.isRegularFile(path) ? path : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The file on the file system, or null if it is not (e.g. inside a jar)
+     */
+    @Override
+    public Path getWatchPath() {
+        URL resource = classLoader.getResource(propertiesFile);
+        if (resource == null) {
+            return fileSystemPath();
+        }
+        if (!"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        try {
+            return Path.of(resource.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PropertiesFileSource[" + propertiesFile + "]";
+    }
+}
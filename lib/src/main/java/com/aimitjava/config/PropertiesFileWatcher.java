@@ -0,0 +1,140 @@
+package com.aimitjava.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a properties file on a background daemon thread and runs a callback when it changes.
+ * Uses a {@link WatchService} on the parent directory and falls back to polling the file's
+ * modification time and size if no watch service is available.
+ */
+final class PropertiesFileWatcher implements SourceWatcher {
+    private final Path file;
+    private final Duration interval;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * @param file The file to watch
+     * @param interval Polling interval; with a watch service, the quiet period awaited after
+     *                 the last event so that a file still being written is not read
+     * @param onChange Invoked on the watcher thread after every change
+     */
+    PropertiesFileWatcher(Path file, Duration interval, Runnable onChange) {
+        this.file = file.toAbsolutePath();
+        this.interval = interval;
+        this.onChange = onChange;
+        this.watchService = openWatchService(this.file.getParent());
+        this.thread = Thread.ofPlatform()
+                .daemon()
+                .name("config-reload-" + file.getFileName())
+                .start(watchService != null ? this::watch : this::poll);
+    }
+
+    private static WatchService openWatchService(Path directory) {
+        try {
+            WatchService service = directory.getFileSystem().newWatchService();
+            directory.register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if changes are detected by a watch service rather than by polling
+     */
+    boolean isUsingWatchService() {
+        return watchService != null;
+    }
+
+    private void watch() {
+        try {
+            while (!closed) {
+                if (isRelevant(watchService.take())) {
+                    // Wait until the writer is done before reading the file
+                    WatchKey next;
+                    while ((next = watchService.poll(interval.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                        isRelevant(next);
+                    }
+                    notifyChange();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Watcher was closed
+        }
+    }
+
+    private boolean isRelevant(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private void poll() {
+        FileState last = FileState.of(file);
+        while (!closed) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            FileState current = FileState.of(file);
+            if (!current.equals(last)) {
+                last = current;
+                notifyChange();
+            }
+        }
+    }
+
+    private void notifyChange() {
+        try {
+            onChange.run();
+        } catch (RuntimeException e) {
+            System.err.println("Warning: Could not reload " + file + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+        thread.interrupt();
+    }
+
+    private record FileState(long lastModified, long size) {
+        static FileState of(Path file) {
+            try {
+                return new FileState(Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+            } catch (IOException e) {
+                return new FileState(-1L, -1L);
+            }
+        }
+    }
+}
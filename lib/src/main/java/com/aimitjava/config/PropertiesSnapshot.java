@@ -0,0 +1,191 @@
+package com.aimitjava.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+
+/**
+ * A precompiled binary form of a properties file, written at build time next to the file as
+ * {@code <name>.bin}. {@link ConfigSource#propertiesFile(String)} prefers the snapshot if it is on
+ * the classpath in the same directory or jar as the properties file: the properties file itself is
+ * not read, and the snapshot is read with a single read and decoded without any text parsing.
+ * <p>
+ * The snapshot records the length, CRC32 and modification time of the properties file it was
+ * compiled from. It is checked against the properties file without reading it: inside a jar by the
+ * length and CRC32 of the jar entry, on the file system by length and modification time. A
+ * snapshot that does not match the properties file on the classpath is ignored.
+ */
+public final class PropertiesSnapshot {
+    /** The suffix appended to the name of the properties file. */
+    public static final String SUFFIX = ".bin";
+    private static final int MAGIC = 0x43464753; // "CFGS"
+    private static final int VERSION = 2;
+
+    private PropertiesSnapshot() {
+    }
+
+    /**
+     * @param propertiesFile The resource name of a properties file
+     * @return The resource name of its snapshot
+     */
+    public static String snapshotName(String propertiesFile) {
+        return propertiesFile + SUFFIX;
+    }
+
+    /**
+     * Validates a properties file and writes its snapshot.
+     *
+     * @param propertiesFile The properties file
+     * @param snapshotFile The snapshot to write
+     * @throws IOException if the properties file cannot be read or is malformed
+     */
+    public static void compile(Path propertiesFile, Path snapshotFile) throws IOException {
+        byte[] source = Files.readAllBytes(propertiesFile);
+        Properties properties = new Properties();
+        try {
+            properties.load(new ByteArrayInputStream(source));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(propertiesFile + ": " + e.getMessage(), e);
+        }
+        long modified = Files.getLastModifiedTime(propertiesFile).toMillis();
+        try (OutputStream output = Files.newOutputStream(snapshotFile)) {
+            write(ConfigSnapshot.asMap(properties), new Stamp(source.length, checksum(source), modified), output);
+        }
+    }
+
+    /**
+     * Writes a snapshot. Keys are sorted, so equal input produces identical bytes.
+     *
+     * @param source The properties file the snapshot is compiled from
+     */
+    static void write(Map<String, String> values, Stamp source, OutputStream output) throws IOException {
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(source.length());
+        data.writeInt((int) source.checksum());
+        data.writeLong(source.lastModified());
+        data.writeInt(values.size());
+        for (Map.Entry<String, String> entry : new TreeMap<>(values).entrySet()) {
+            writeString(data, entry.getKey());
+            writeString(data, entry.getValue());
+        }
+        data.flush();
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        // Not writeUTF: values such as prompt templates may exceed 64 KB
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Decodes a snapshot.
+     *
+     * @param snapshot The complete snapshot
+     * @param source The properties file to check the snapshot against, or null to skip the check
+     * @return The values, or null if the snapshot was compiled from a different properties file
+     * @throws IOException if the snapshot is malformed or of an unsupported version
+     */
+    static Map<String, String> read(byte[] snapshot, Stamp source) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a properties snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported properties snapshot version " + version);
+            }
+            Stamp compiled = new Stamp(buffer.getLong(), Integer.toUnsignedLong(buffer.getInt()), buffer.getLong());
+            if (source != null && !source.matches(compiled)) {
+                return null;
+            }
+            int count = buffer.getInt();
+            Properties values = new Properties();
+            for (int i = 0; i < count; i++) {
+                String key = readString(buffer, snapshot);
+                values.setProperty(key, readString(buffer, snapshot));
+            }
+            return ConfigSnapshot.asMap(values);
+        } catch (RuntimeException e) {
+            throw new IOException("Truncated properties snapshot", e);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] snapshot) {
+        int length = buffer.getInt();
+        String value = new String(snapshot, buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    static long checksum(byte[] source) {
+        CRC32 crc = new CRC32();
+        crc.update(source);
+        return crc.getValue();
+    }
+
+    /**
+     * Describes a properties file without reading its content.
+     *
+     * @param length The length in bytes
+     * @param checksum The CRC32, or -1 if unknown
+     * @param lastModified The modification time in milliseconds, or -1 if unknown
+     */
+    record Stamp(long length, long checksum, long lastModified) {
+
+        /**
+         * @param properties The properties file on the classpath
+         * @return The stamp of a file or jar entry, or null for other locations
+         * @throws IOException if the file or jar cannot be read
+         */
+        static Stamp of(URL properties) throws IOException {
+            if ("file".equals(properties.getProtocol())) {
+                Path path;
+                try {
+                    path = Path.of(properties.toURI());
+                } catch (URISyntaxException | IllegalArgumentException e) {
+                    return null;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new Stamp(attributes.size(), -1, attributes.lastModifiedTime().toMillis());
+            }
+            if (properties.openConnection() instanceof JarURLConnection jar) {
+                // Read from the central directory of the jar, which the class loader has open anyway
+                JarEntry entry = jar.getJarEntry();
+                return new Stamp(entry.getSize(), entry.getCrc(), -1);
+            }
+            return null;
+        }
+
+        /**
+         * @return true if the lengths match and the checksums or, if no checksum is known, the
+         *         modification times
+         */
+        boolean matches(Stamp compiled) {
+            if (length < 0 || length != compiled.length()) {
+                return false;
+            }
+            if (checksum != -1) {
+                return checksum == compiled.checksum();
+            }
+            return lastModified != -1 && lastModified == compiled.lastModified();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.aimitjava.config;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Long-polls a {@link RemoteConfigSource} on a background daemon thread and runs a callback
+ * whenever a new revision has been applied.
+ */
+final class RemoteConfigPoller implements SourceWatcher {
+    private final RemoteConfigSource source;
+    private final Duration interval;
+    private final Runnable onChange;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * @param source The source to poll
+     * @param interval The pause between two requests, e.g. if the server does not support long polling
+     * @param onChange Invoked on the poller thread after every change
+     */
+    RemoteConfigPoller(RemoteConfigSource source, Duration interval, Runnable onChange) {
+        this.source = source;
+        this.interval = interval;
+        this.onChange = onChange;
+        this.thread = Thread.ofPlatform()
+                .daemon()
+                .name("config-sync-" + source.getName())
+                .start(this::poll);
+    }
+
+    private void poll() {
+        boolean reachable = true;
+        while (!closed) {
+            try {
+                if (source.awaitChange()) {
+                    notifyChange();
+                    continue;
+                }
+                reachable = true;
+            } catch (IOException e) {
+                if (reachable) {
+                    System.err.println("Warning: Could not poll " + source.getName() + ": " + e.getMessage());
+                }
+                reachable = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void notifyChange() {
+        try {
+            onChange.run();
+        } catch (RuntimeException e) {
+            System.err.println("Warning: Could not reload " + source.getName() + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+}
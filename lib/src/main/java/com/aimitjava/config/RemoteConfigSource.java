@@ -0,0 +1,244 @@
+package com.aimitjava.config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Values served by a remote config endpoint, synchronised incrementally by revision.
+ * <p>
+ * The source requests {@code GET <endpoint>?since=<revision>}, optionally with {@code &wait=<seconds>}
+ * to let the server hold the request until a newer revision exists (long polling). The server answers
+ * <ul>
+ *   <li>{@code 304 Not Modified} if {@code since} is still the latest revision, or</li>
+ *   <li>{@code 200 OK} with a properties body and the headers {@value #REVISION_HEADER} (the new
+ *       revision), {@value #DELTA_HEADER} ({@code true} if the body only contains the keys changed since
+ *       {@code since}, otherwise it is the full set of values) and, for a delta, {@value #REMOVED_HEADER}
+ *       (the removed keys, URL-encoded and separated by commas).</li>
+ * </ul>
+ * The latest values are kept in a local cache file, so a restart only fetches the changes since the
+ * cached revision and still starts if the endpoint cannot be reached.
+ */
+final class RemoteConfigSource implements ConfigSource {
+    static final String REVISION_HEADER = "X-Config-Revision";
+    static final String DELTA_HEADER = "X-Config-Delta";
+    static final String REMOVED_HEADER = "X-Config-Removed";
+    static final Duration DEFAULT_LONG_POLL = Duration.ofSeconds(30);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final String CACHE_HEADER = "#revision=";
+
+    private final URI endpoint;
+    private final Path cacheFile;
+    private final Duration longPoll;
+    private final HttpClient client;
+    // Null until the cache file has been read; replaced as a whole on every change
+    private volatile Revision current;
+
+    /**
+     * The values of one revision; never modified.
+     */
+    private record Revision(long number, Map<String, String> values) {
+        static final Revision NONE = new Revision(0, Map.of());
+    }
+
+    RemoteConfigSource(URI endpoint, Path cacheFile) {
+        this(endpoint, cacheFile, DEFAULT_LONG_POLL);
+    }
+
+    /**
+     * @param longPoll How long the server may hold a request of {@link #awaitChange()}
+     */
+    RemoteConfigSource(URI endpoint, Path cacheFile, Duration longPoll) {
+        this.endpoint = endpoint;
+        this.cacheFile = cacheFile;
+        this.longPoll = longPoll;
+        this.client = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+    }
+
+    @Override
+    public String getName() {
+        return endpoint.toString();
+    }
+
+    /**
+     * Fetches the changes since the last known revision. If the endpoint cannot be reached,
+     * the last known values are used.
+     */
+    @Override
+    public Map<String, String> load() throws IOException {
+        Revision known = known();
+        try {
+            fetch(known, Duration.ZERO);
+        } catch (IOException e) {
+            if (known == Revision.NONE) {
+                throw e;
+            }
+            System.err.println("Warning: Could not reach " + endpoint + ", using revision " + known.number()
+                    + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + endpoint, e);
+        }
+        Revision loaded = current;
+        return loaded == Revision.NONE ? null : loaded.values();
+    }
+
+    /**
+     * Waits for the server to publish a newer revision and applies it.
+     *
+     * @return true if the values changed
+     * @throws IOException if the endpoint cannot be reached
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitChange() throws IOException, InterruptedException {
+        return fetch(known(), longPoll);
+    }
+
+    /**
+     * @return The revision of the current values, 0 if none are known
+     */
+    long getRevision() {
+        return known().number();
+    }
+
+    private Revision known() {
+        Revision known = current;
+        if (known == null) {
+            synchronized (this) {
+                if (current == null) {
+                    current = readCache();
+                }
+                known = current;
+            }
+        }
+        return known;
+    }
+
+    private boolean fetch(Revision base, Duration wait) throws IOException, InterruptedException {
+        String query = "since=" + base.number() + (wait.isZero() ? "" : "&wait=" + wait.toSeconds());
+        URI uri = URI.create(endpoint + (endpoint.getRawQuery() == null ? "?" : "&") + query);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT.plus(wait))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        return switch (response.statusCode()) {
+            case 304 -> false;
+            case 200 -> apply(base, response);
+            case 404 -> {
+                if (base != Revision.NONE) {
+                    throw new IOException(endpoint + " no longer exists");
+                }
+                yield false;
+            }
+            default -> throw new IOException("Unexpected status " + response.statusCode() + " from " + endpoint);
+        };
+    }
+
+    /**
+     * Applies a response on top of the revision it was requested for. The request is not
+     * made under the lock, so a response for an outdated revision is dropped.
+     */
+    private synchronized boolean apply(Revision base, HttpResponse<String> response) throws IOException {
+        String revisionHeader = response.headers().firstValue(REVISION_HEADER)
+                .orElseThrow(() -> new IOException("Missing " + REVISION_HEADER + " from " + endpoint));
+        long number;
+        try {
+            number = Long.parseLong(revisionHeader.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid " + REVISION_HEADER + " from " + endpoint + ": " + revisionHeader, e);
+        }
+        boolean delta = Boolean.parseBoolean(response.headers().firstValue(DELTA_HEADER).orElse("false"));
+        if (current != base || number <= base.number()) {
+            return false;
+        }
+
+        Properties body = new Properties();
+        body.load(new StringReader(response.body()));
+        Map<String, String> values = delta ? new HashMap<>(base.values()) : new HashMap<>();
+        for (String key : body.stringPropertyNames()) {
+            values.put(key, body.getProperty(key));
+        }
+        if (delta) {
+            for (String removed : response.headers().firstValue(REMOVED_HEADER).orElse("").split(",")) {
+                if (!removed.isEmpty()) {
+                    values.remove(URLDecoder.decode(removed, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        current = new Revision(number, Map.copyOf(values));
+        writeCache(current);
+        return true;
+    }
+
+    private Revision readCache() {
+        if (!Files.isRegularFile(cacheFile)) {
+            return Revision.NONE;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(CACHE_HEADER)) {
+                throw new IOException("not a config cache file");
+            }
+            long number = Long.parseLong(header.substring(CACHE_HEADER.length()).trim());
+            Properties cached = new Properties();
+            cached.load(reader);
+            Map<String, String> values = new HashMap<>();
+            for (String key : cached.stringPropertyNames()) {
+                values.put(key, cached.getProperty(key));
+            }
+            return new Revision(number, Map.copyOf(values));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: Ignoring config cache " + cacheFile + ": " + e.getMessage());
+            return Revision.NONE;
+        }
+    }
+
+    private void writeCache(Revision revision) {
+        try {
+            Properties values = new Properties();
+            values.putAll(revision.values());
+            StringWriter out = new StringWriter();
+            out.write(CACHE_HEADER + revision.number() + System.lineSeparator());
+            values.store(out, null);
+
+            Path directory = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // Write a new file and rename it, so a crash never leaves a partial cache behind
+            Path temp = Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(temp, out.toString(), StandardCharsets.UTF_8);
+                try {
+                    Files.move(temp, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Could not write config cache " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteConfigSource[" + endpoint + "]";
+    }
+}
@@ -0,0 +1,40 @@
+package com.aimitjava.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Looks up secrets such as API keys, e.g. in a secret store. Resolved values are cached by the
+ * caller, so implementations may be slow.
+ */
+@FunctionalInterface
+public interface SecretResolver {
+
+    /**
+     * Looks up the current value of a secret.
+     *
+     * @param name The name of the secret, e.g. {@code openai.api.key}
+     * @return The value, or null if the secret does not exist
+     * @throws IOException if the secret store cannot be read
+     */
+    String resolve(String name) throws IOException;
+
+    /**
+     * Reads each secret from a file of the same name in a directory, as mounted by Docker or
+     * Kubernetes secrets. Surrounding whitespace, including a trailing newline, is removed.
+     *
+     * @param directory The directory containing one file per secret
+     * @return The resolver
+     */
+    static SecretResolver fromDirectory(Path directory) {
+        return name -> {
+            Path file = directory.resolve(name);
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            return Files.readString(file, StandardCharsets.UTF_8).strip();
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.aimitjava.config;
+
+/**
+ * Watches a source on a background thread and triggers a reload when it changes.
+ */
+interface SourceWatcher extends AutoCloseable {
+
+    /**
+     * Stops watching.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,31 @@
+package com.aimitjava.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The JVM system properties.
+ */
+final class SystemPropertiesSource implements ConfigSource {
+
+    @Override
+    public String getName() {
+        return "system properties";
+    }
+
+    @Override
+    public Map<String, String> load() {
+        Properties system = System.getProperties();
+        Map<String, String> values = new HashMap<>();
+        for (String key : system.stringPropertyNames()) {
+            values.put(key, system.getProperty(key));
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "SystemPropertiesSource";
+    }
+}
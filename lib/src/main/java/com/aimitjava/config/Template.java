@@ -0,0 +1,112 @@
+package com.aimitjava.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A value with {@code ${name}} or {@code ${name:default}} placeholders, parsed once into literal
+ * parts and references. Defaults may contain placeholders themselves; <code>$${</code> stands
+ * for a literal <code>${</code>.
+ */
+final class Template {
+    private static final String OPEN = "${";
+
+    // literals[i] precedes references[i]; the last literal follows the last reference
+    private final String[] literals;
+    private final String[] references;
+    private final Template[] defaults;
+
+    private Template(List<String> literals, List<String> references, List<Template> defaults) {
+        this.literals = literals.toArray(new String[0]);
+        this.references = references.toArray(new String[0]);
+        this.defaults = defaults.toArray(new Template[0]);
+    }
+
+    /**
+     * @return true if the value may contain placeholders and needs to be compiled
+     */
+    static boolean isCandidate(String value) {
+        return value.contains(OPEN);
+    }
+
+    /**
+     * Parses a value. An unterminated placeholder is kept as literal text.
+     */
+    static Template compile(String value) {
+        List<String> literals = new ArrayList<>();
+        List<String> references = new ArrayList<>();
+        List<Template> defaults = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < value.length()) {
+            int open = value.indexOf(OPEN, position);
+            if (open < 0) {
+                break;
+            }
+            if (open > 0 && value.charAt(open - 1) == '$') {
+                // $${ is an escaped ${
+                literal.append(value, position, open - 1).append(OPEN);
+                position = open + OPEN.length();
+                continue;
+            }
+            int close = matchingBrace(value, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            literal.append(value, position, open);
+            String placeholder = value.substring(open + OPEN.length(), close);
+            int separator = placeholder.indexOf(':');
+            literals.add(literal.toString());
+            literal.setLength(0);
+            if (separator < 0) {
+                references.add(placeholder.trim());
+                defaults.add(null);
+            } else {
+                references.add(placeholder.substring(0, separator).trim());
+                defaults.add(compile(placeholder.substring(separator + 1)));
+            }
+            position = close + 1;
+        }
+        literal.append(value, position, value.length());
+        literals.add(literal.toString());
+        return new Template(literals, references, defaults);
+    }
+
+    private static int matchingBrace(String value, int from) {
+        int depth = 1;
+        for (int i = from; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '{' && i > 0 && value.charAt(i - 1) == '$') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Resolves all placeholders.
+     *
+     * @param lookup Resolves a referenced name, returning null if it is not set
+     * @param unresolved Called with the name of a reference that is not set and has no default;
+     *                   the placeholder is kept verbatim
+     */
+    String render(Function<String, String> lookup, Consumer<String> unresolved) {
+        StringBuilder result = new StringBuilder(literals[0]);
+        for (int i = 0; i < references.length; i++) {
+            String value = lookup.apply(references[i]);
+            if (value == null && defaults[i] != null) {
+                value = defaults[i].render(lookup, unresolved);
+            }
+            if (value == null) {
+                unresolved.accept(references[i]);
+                value = OPEN + references[i] + "}";
+            }
+            result.append(value).append(literals[i + 1]);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.aimitjava.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The overlays of many tenants on one shared base {@link Configuration}. Each tenant costs only
+ * its overrides; tenants without overrides share a single empty overlay. The overlays of a
+ * {@link LangchainConfiguration} are {@link LangchainConfigOverlay}s.
+ */
+public final class TenantOverlays {
+    private final Configuration base;
+    private final ConfigOverlay empty;
+    private final Map<String, ConfigOverlay> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * @param base The configuration shared by all tenants
+     */
+    public TenantOverlays(Configuration base) {
+        this.base = base;
+        this.empty = base.withOverrides(Map.of());
+    }
+
+    /**
+     * Gets the configuration of a tenant.
+     *
+     * @param tenant The tenant id
+     * @return The tenant's overlay, or a view of the base configuration if it has no overrides
+     */
+    public ConfigOverlay forTenant(String tenant) {
+        return tenants.getOrDefault(tenant, empty);
+    }
+
+    /**
+     * Replaces all overrides of a tenant.
+     *
+     * @param tenant The tenant id
+     * @param overrides The tenant's values; an empty map removes the tenant
+     */
+    public void setOverrides(String tenant, Map<String, String> overrides) {
+        if (overrides.isEmpty()) {
+            tenants.remove(tenant);
+        } else {
+            tenants.put(tenant, base.withOverrides(overrides));
+        }
+    }
+
+    /**
+     * Overrides a single value of a tenant, keeping its other overrides.
+     *
+     * @param tenant The tenant id
+     * @param key The property key
+     * @param value The tenant's value
+     */
+    public void override(String tenant, String key, String value) {
+        tenants.merge(tenant, base.withOverrides(Map.of(key, value)),
+                (current, added) -> current.withOverrides(added.getOverrides()));
+    }
+
+    /**
+     * Removes a single override of a tenant, so that the key is read from the base configuration.
+     *
+     * @param tenant The tenant id
+     * @param key The property key
+     */
+    public void removeOverride(String tenant, String key) {
+        tenants.computeIfPresent(tenant, (id, current) -> {
+            ConfigOverlay remaining = current.withoutOverride(key);
+            return remaining.getOverrides().isEmpty() ? null : remaining;
+        });
+    }
+
+    /**
+     * @return The number of tenants with overrides
+     */
+    public int size() {
+        return tenants.size();
+    }
+}
@@ -0,0 +1,180 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ApiKeyPoolTest {
+    private final AtomicLong clock = new AtomicLong(-1_000);
+
+    @Test
+    void shouldRotateThroughKeysInOrder() {
+        // Given
+        ApiKeyPool pool = ApiKeyPool.of(List.of("a", "b", "c"));
+
+        // When
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            selected.add(pool.next());
+        }
+
+        // Then
+        assertThat(selected, contains("a", "b", "c", "a", "b", "c"));
+    }
+
+    @Test
+    void shouldInterleaveKeysByWeight() {
+        // Given
+        ApiKeyPool pool = ApiKeyPool.weighted(List.of(
+                new ApiKeyPool.WeightedKey("heavy", 3), new ApiKeyPool.WeightedKey("light", 1)));
+
+        // When
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            selected.add(pool.next());
+        }
+
+        // Then
+        assertThat(Collections.frequency(selected, "heavy"), is(6));
+        assertThat(selected.subList(0, 4), contains("heavy", "heavy", "light", "heavy"));
+    }
+
+    @Test
+    void shouldReduceLargeWeightsToShortSchedule() {
+        // Given
+        ApiKeyPool pool = ApiKeyPool.weighted(List.of(
+                new ApiKeyPool.WeightedKey("heavy", 2_000_000_000), new ApiKeyPool.WeightedKey("light", 1_000_000_000)));
+
+        // When
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            selected.add(pool.next());
+        }
+
+        // Then
+        assertThat(selected, contains("heavy", "light", "heavy"));
+    }
+
+    @Test
+    void shouldKeepRatioOfCoprimeWeightsApproximately() {
+        // Given
+        ApiKeyPool pool = ApiKeyPool.weighted(List.of(
+                new ApiKeyPool.WeightedKey("heavy", Integer.MAX_VALUE), new ApiKeyPool.WeightedKey("light", 1)));
+
+        // When
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            selected.add(pool.next());
+        }
+
+        // Then
+        assertThat(Collections.frequency(selected, "light"), is(lessThanOrEqualTo(3)));
+    }
+
+    @Test
+    void shouldSkipThrottledKeysUntilThrottleExpires() {
+        // Given
+        ApiKeyPool pool = new ApiKeyPool(List.of(
+                new ApiKeyPool.WeightedKey("a", 1), new ApiKeyPool.WeightedKey("b", 1)), clock::get);
+
+        // When
+        pool.markThrottled("a", Duration.ofNanos(100));
+
+        // Then
+        assertThat(pool.isThrottled("a"), is(true));
+        assertThat(pool.next(), is("b"));
+        assertThat(pool.next(), is("b"));
+        clock.addAndGet(100);
+        assertThat(pool.isThrottled("a"), is(false));
+        assertThat(List.of(pool.next(), pool.next()), containsInAnyOrder("a", "b"));
+    }
+
+    @Test
+    void shouldReturnKeyReleasedFirstWhenAllAreThrottled() {
+        // Given
+        ApiKeyPool pool = new ApiKeyPool(List.of(
+                new ApiKeyPool.WeightedKey("a", 1), new ApiKeyPool.WeightedKey("b", 1)), clock::get);
+
+        // When
+        pool.markThrottled("a", Duration.ofNanos(500));
+        pool.markThrottled("b", Duration.ofNanos(200));
+
+        // Then
+        assertThat(pool.next(), is("b"));
+        assertThat(pool.next(), is("b"));
+    }
+
+    @Test
+    void shouldSpreadConcurrentSelectionsEvenly() throws InterruptedException {
+        // Given
+        ApiKeyPool pool = ApiKeyPool.of(List.of("a", "b", "c", "d"));
+        Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+        List<Thread> threads = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counts.computeIfAbsent(pool.next(), key -> new LongAdder()).increment();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        for (String key : pool.getKeys()) {
+            assertThat(counts.get(key).sum(), is(20_000L));
+        }
+    }
+
+    @Test
+    void shouldReadNumberedKeysFromConfiguration() {
+        // Given
+        LangchainConfiguration configuration = new LangchainConfiguration(List.of(ConfigSource.fromMap("keys", Map.of(
+                "openai.api.key.1", "sk-1",
+                "openai.api.key.2", "sk-2",
+                "openai.api.key.2.weight", "2"))), new EnvironmentProvider(key -> null));
+
+        // When
+        ApiKeyPool pool = configuration.getOpenAiApiKeyPool();
+
+        // Then
+        assertThat(pool.getKeys(), contains("sk-1", "sk-2"));
+        assertThat(configuration.getOpenAiApiKeyPool(), is(sameInstance(pool)));
+        assertThat(List.of(pool.next(), pool.next(), pool.next()), containsInAnyOrder("sk-1", "sk-2", "sk-2"));
+    }
+
+    @Test
+    void shouldRebuildSingleKeyPoolWhenKeyRotates() {
+        // Given
+        AtomicReference<String> secret = new AtomicReference<>("key-1");
+        LangchainConfiguration configuration = new LangchainConfiguration(List.of(ConfigSource.fromMap("keys", Map.of())),
+                new EnvironmentProvider(key -> null));
+        configuration.setSecretResolver(key -> secret.get(), Duration.ofNanos(4));
+        assertThat(configuration.getOpenAiApiKeyPool().next(), is("key-1"));
+
+        // When - the resolver is refreshed in the background
+        secret.set("key-2");
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!"key-2".equals(configuration.getOpenAiApiKey()) && System.nanoTime() - deadline < 0) {
+            Thread.onSpinWait();
+        }
+
+        // Then
+        assertThat(configuration.getOpenAiApiKey(), is("key-2"));
+        assertThat(configuration.getOpenAiApiKeyPool().next(), is("key-2"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachedSecretTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldServeCachedValueWithinTtl() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CachedSecret secret = new CachedSecret(() -> "key-" + loads.incrementAndGet(),
+                Duration.ofNanos(100), clock::get, pendingRefreshes::add);
+
+        // When
+        secret.get();
+        clock.set(74);
+
+        // Then
+        assertThat(secret.get(), is("key-1"));
+        assertThat(loads.get(), is(1));
+        assertThat(pendingRefreshes, is(empty()));
+    }
+
+    @Test
+    void shouldRefreshOnceAheadOfExpiryWithoutBlockingReaders() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CachedSecret secret = new CachedSecret(() -> "key-" + loads.incrementAndGet(),
+                Duration.ofNanos(100), clock::get, pendingRefreshes::add);
+        secret.get();
+
+        // When
+        clock.set(80);
+        for (int i = 0; i < 10; i++) {
+            assertThat(secret.get(), is("key-1"));
+        }
+
+        // Then
+        assertThat(pendingRefreshes, hasSize(1));
+        pendingRefreshes.get(0).run();
+        assertThat(secret.get(), is("key-2"));
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    void shouldKeepPreviousValueWhenRefreshFails() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CachedSecret secret = new CachedSecret(() -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IOException("secret store unavailable");
+            }
+            return "key-1";
+        }, Duration.ofNanos(100), clock::get, pendingRefreshes::add);
+        secret.get();
+
+        // When
+        clock.set(80);
+        secret.get();
+        pendingRefreshes.remove(0).run();
+        clock.set(90);
+
+        // Then - retried after an eighth of the TTL
+        assertThat(secret.get(), is("key-1"));
+        assertThat(pendingRefreshes, is(empty()));
+        clock.set(93);
+        secret.get();
+        assertThat(pendingRefreshes, hasSize(1));
+    }
+
+    @Test
+    void shouldNeverReturnExpiredValue() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CachedSecret secret = new CachedSecret(() -> {
+            if (loads.incrementAndGet() == 2) {
+                throw new IOException("secret store unavailable");
+            }
+            return "key-" + loads.get();
+        }, Duration.ofNanos(100), clock::get, pendingRefreshes::add);
+        secret.get();
+
+        // When - the refresh was started but has not run when the TTL ends
+        clock.set(80);
+        secret.get();
+        clock.set(100);
+
+        // Then - loaded synchronously, failing while the secret store is unavailable
+        IllegalStateException exception = assertThrows(IllegalStateException.class, secret::get);
+        assertThat(exception.getMessage(), containsString("secret store unavailable"));
+        assertThat(secret.get(), is("key-3"));
+        pendingRefreshes.remove(0).run();
+        assertThat(secret.get(), is("key-3"));
+    }
+
+    @Test
+    void shouldStartRefreshAgainAfterExecutorRejectedIt() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CachedSecret secret = new CachedSecret(() -> "key-" + loads.incrementAndGet(), Duration.ofNanos(100), clock::get,
+                task -> {
+                    if (rejected.incrementAndGet() == 1) {
+                        throw new RejectedExecutionException("shut down");
+                    }
+                    pendingRefreshes.add(task);
+                });
+        secret.get();
+
+        // When
+        clock.set(80);
+        assertThat(secret.get(), is("key-1"));
+        secret.get();
+
+        // Then
+        assertThat(pendingRefreshes, hasSize(1));
+        pendingRefreshes.get(0).run();
+        assertThat(secret.get(), is("key-2"));
+    }
+
+    @Test
+    void shouldResolveApiKeyFromSecretDirectory() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("openai.api.key"), "sk-from-file\n");
+        LangchainConfiguration configuration = new LangchainConfiguration(
+                "non-existent.properties", new EnvironmentProvider(Map.<String, String>of()::get));
+
+        // When
+        configuration.setSecretResolver(SecretResolver.fromDirectory(tempDir), Duration.ofMinutes(5));
+
+        // Then
+        assertThat(configuration.getOpenAiApiKey(), is("sk-from-file"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ChangeNotifierTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path propertiesFile;
+    private Configuration configuration;
+    private final BlockingQueue<ConfigChangeEvent> events = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        propertiesFile = tempDir.resolve("listener.properties");
+        Files.writeString(propertiesFile, "openai.model.name=gpt-4\nopenai.temperature=0.5\nother=1\n");
+        configuration = new Configuration(propertiesFile.toString(), new EnvironmentProvider(key -> null));
+        configuration.setChangeExecutor(Runnable::run);
+        configuration.setChangeDebounce(Duration.ofMillis(100));
+    }
+
+    @Test
+    void shouldNotifyKeySubscriberOnlyAboutItsKey() throws Exception {
+        // Given
+        configuration.subscribe("openai.model.name", events::add);
+
+        // When
+        reloadWith("openai.model.name=gpt-4o\nopenai.temperature=0.9\nother=1\n");
+
+        // Then
+        ConfigChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertThat(event, is(notNullValue()));
+        assertThat(event.getChangedKeys(), contains("openai.model.name"));
+        assertThat(event.getOldValue("openai.model.name"), is("gpt-4"));
+        assertThat(event.getNewValue("openai.model.name"), is("gpt-4o"));
+    }
+
+    @Test
+    void shouldBatchChangesOfDebouncedReloadsForPrefixSubscriber() throws Exception {
+        // Given
+        configuration.subscribeToPrefix("openai.", events::add);
+
+        // When - two reloads within the debounce period
+        reloadWith("openai.model.name=gpt-4o\nopenai.temperature=0.5\nother=2\n");
+        reloadWith("openai.model.name=gpt-4o\nopenai.temperature=0.9\nother=3\n");
+
+        // Then - one event with the combined diff, without keys outside the prefix
+        ConfigChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertThat(event, is(notNullValue()));
+        assertThat(event.getChangedKeys(), containsInAnyOrder("openai.model.name", "openai.temperature"));
+        assertThat(event.getOldValue("openai.temperature"), is("0.5"));
+        assertThat(event.getNewValue("openai.temperature"), is("0.9"));
+        assertThat(events.poll(300, TimeUnit.MILLISECONDS), is(nullValue()));
+    }
+
+    @Test
+    void shouldReportRemovedKeys() throws Exception {
+        // Given
+        configuration.subscribe("openai.temperature", events::add);
+
+        // When
+        reloadWith("openai.model.name=gpt-4\n");
+
+        // Then
+        ConfigChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertThat(event.getOldValue("openai.temperature"), is("0.5"));
+        assertThat(event.getNewValue("openai.temperature"), is(nullValue()));
+    }
+
+    @Test
+    void shouldNotNotifyUnchangedOrCancelledSubscriptions() throws Exception {
+        // Given
+        configuration.subscribe("other", events::add);
+        ConfigSubscription cancelled = configuration.subscribe("openai.model.name", events::add);
+        cancelled.cancel();
+
+        // When
+        reloadWith("openai.model.name=gpt-4o\nopenai.temperature=0.5\nother=1\n");
+
+        // Then
+        assertThat(events.poll(500, TimeUnit.MILLISECONDS), is(nullValue()));
+    }
+
+    @Test
+    void shouldDeliverEventsOfOneListenerInOrderAndNeverConcurrently() throws Exception {
+        // Given - an executor that would run the two notifications in parallel
+        ExecutorService executor = Executors.newCachedThreadPool();
+        configuration.setChangeExecutor(executor);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        configuration.subscribe("openai.model.name", event -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            events.add(event);
+        });
+
+        try {
+            // When - the second reload is dispatched while the listener still handles the first
+            reloadWith("openai.model.name=gpt-4o\nopenai.temperature=0.5\nother=1\n");
+            Thread.sleep(200);
+            reloadWith("openai.model.name=gpt-5\nopenai.temperature=0.5\nother=1\n");
+
+            // Then
+            assertThat(events.poll(5, TimeUnit.SECONDS).getNewValue("openai.model.name"), is("gpt-4o"));
+            assertThat(events.poll(5, TimeUnit.SECONDS).getNewValue("openai.model.name"), is("gpt-5"));
+            assertThat(maxActive.get(), is(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldDiffAgainstLastLoadedValuesWhenTableWasReplaced() throws Exception {
+        // Given - a replacement table already containing the values of the next load
+        configuration.subscribe("openai.model.name", events::add);
+        Properties replaced = new Properties();
+        replaced.setProperty("openai.model.name", "gpt-4o");
+        configuration.properties = replaced;
+        assertThat(configuration.getProperty("openai.model.name"), is("gpt-4o"));
+
+        // When
+        reloadWith("openai.model.name=gpt-4o\nopenai.temperature=0.5\nother=1\n");
+
+        // Then
+        ConfigChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertThat(event, is(notNullValue()));
+        assertThat(event.getOldValue("openai.model.name"), is("gpt-4"));
+        assertThat(event.getNewValue("openai.model.name"), is("gpt-4o"));
+    }
+
+    private void reloadWith(String content) throws IOException {
+        Files.writeString(propertiesFile, content);
+        configuration.reload();
+    }
+}
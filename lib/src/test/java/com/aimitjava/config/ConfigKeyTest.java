@@ -0,0 +1,141 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ConfigKeyTest {
+    private static final ConfigKey<Integer> INT_KEY = ConfigKey.ofInt("test.int.property");
+    private static final ConfigKey<Double> DOUBLE_KEY = ConfigKey.ofDouble("test.double.property");
+    private static final ConfigKey<Integer> INVALID_KEY = ConfigKey.ofInt("test.string.property");
+    private static final ConfigKey<String> UPPER_CASE_KEY = ConfigKey.of("test.string.property", String::toUpperCase);
+
+    private Configuration configuration;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new Configuration("application.properties", new EnvironmentProvider(Map.of("test.int.property", "7")::get));
+    }
+
+    @Test
+    void shouldShareKeysOfTheSameNameAndType() {
+        assertThat(ConfigKey.ofInt("test.int.property"), is(sameInstance(INT_KEY)));
+        assertThat(ConfigKey.ofString("test.int.property").index(), is(not(INT_KEY.index())));
+    }
+
+    @Test
+    void shouldNotCreateKeysForLookupsByName() {
+        // When
+        String value = configuration.getProperty("test.ad.hoc.property");
+        int number = configuration.getIntProperty("test.int.property.by.name", 3);
+
+        // Then
+        assertThat(value, is(nullValue()));
+        assertThat(number, is(3));
+        assertThat(ConfigKey.STRING.existingKey("test.ad.hoc.property"), is(nullValue()));
+        assertThat(ConfigKey.INT.existingKey("test.int.property.by.name"), is(nullValue()));
+    }
+
+    @Test
+    void shouldReadExistingKeysForLookupsByName() {
+        assertThat(configuration.getIntProperty("test.int.property", 0), is(7));
+        assertThat(configuration.getDoubleProperty("test.double.property", 0), is(3.14));
+    }
+
+    @Test
+    void shouldReturnConvertedValuesWithEnvironmentPrecedence() {
+        assertThat(configuration.get(INT_KEY), is(7));
+        assertThat(configuration.get(DOUBLE_KEY), is(3.14));
+        assertThat(configuration.get(UPPER_CASE_KEY), is("TEST-VALUE"));
+    }
+
+    @Test
+    void shouldReturnNullOrDefaultForMissingAndInvalidValues() {
+        assertThat(configuration.get(INVALID_KEY), is(nullValue()));
+        assertThat(configuration.get(INVALID_KEY, 5), is(5));
+        assertThat(configuration.get(ConfigKey.ofLong("non.existent.property"), 9L), is(9L));
+    }
+
+    @Test
+    void shouldResolveKeysAgainAfterReload(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("keys.properties");
+        Files.writeString(file, "test.double.property=1.5\n");
+        Configuration fileConfiguration = new Configuration(file.toString(), new EnvironmentProvider(key -> null));
+        assertThat(fileConfiguration.get(DOUBLE_KEY), is(1.5));
+
+        // When
+        Files.writeString(file, "test.double.property=2.5\n");
+        fileConfiguration.reload();
+
+        // Then
+        assertThat(fileConfiguration.get(DOUBLE_KEY), is(2.5));
+    }
+
+    @Test
+    void shouldParseStructuredValuesOncePerSnapshot() {
+        // Given
+        Configuration structured = new Configuration(List.of(ConfigSource.fromMap("structured", Map.of(
+                "client.timeout", "PT30S",
+                "client.backoff", "500ms",
+                "client.buffer", "64KB",
+                "client.stop", " END, ###,, STOP ",
+                "client.limits", "gpt-4o=128000, gpt-4o-mini=16000",
+                "client.retry.delays", "1, 2, 4",
+                "client.token.limits", "128000,16000"))), new EnvironmentProvider(key -> null));
+
+        // When
+        List<String> stop = structured.getListProperty("client.stop");
+        Map<String, String> limits = structured.getMapProperty("client.limits");
+        int[] delays = structured.getIntArrayProperty("client.retry.delays", null);
+
+        // Then
+        assertThat(structured.getDurationProperty("client.timeout", null), is(Duration.ofSeconds(30)));
+        assertThat(structured.getDurationProperty("client.backoff", null), is(Duration.ofMillis(500)));
+        assertThat(structured.getByteSizeProperty("client.buffer", 0), is(65536L));
+        assertThat(stop, contains("END", "###", "STOP"));
+        assertThat(limits.keySet(), contains("gpt-4o", "gpt-4o-mini"));
+        assertThat(limits.get("gpt-4o-mini"), is("16000"));
+        assertThat(delays, is(new int[]{1, 2, 4}));
+        assertThat(structured.getLongArrayProperty("client.token.limits", null), is(new long[]{128000L, 16000L}));
+        assertThat(structured.getListProperty("client.stop"), is(sameInstance(stop)));
+        assertThat(structured.getMapProperty("client.limits"), is(sameInstance(limits)));
+        assertThat(structured.getIntArrayProperty("client.retry.delays", null), is(sameInstance(delays)));
+    }
+
+    @Test
+    void shouldReturnDefaultsForMissingAndInvalidStructuredValues() {
+        // Given
+        Configuration structured = new Configuration(List.of(ConfigSource.fromMap("structured", Map.of(
+                "client.timeout", "soon",
+                "client.buffer", "12XB",
+                "client.limits", "gpt-4o",
+                "client.retry.delays", "1, two"))), new EnvironmentProvider(key -> null));
+
+        // Then
+        assertThat(structured.getDurationProperty("client.timeout", Duration.ofSeconds(5)), is(Duration.ofSeconds(5)));
+        assertThat(structured.getByteSizeProperty("client.buffer", 1024), is(1024L));
+        assertThat(structured.getMapProperty("client.limits"), is(anEmptyMap()));
+        assertThat(structured.getIntArrayProperty("client.retry.delays", new int[0]).length, is(0));
+        assertThat(structured.getListProperty("non.existent.property"), is(empty()));
+    }
+
+    @Test
+    void shouldParseDurationsInAllSupportedFormats() {
+        assertThat(ConfigKey.parseDuration("45"), is(Duration.ofSeconds(45)));
+        assertThat(ConfigKey.parseDuration("-5"), is(Duration.ofSeconds(-5)));
+        assertThat(ConfigKey.parseDuration("2m"), is(Duration.ofMinutes(2)));
+        assertThat(ConfigKey.parseDuration("1 h"), is(Duration.ofHours(1)));
+        assertThat(ConfigKey.parseDuration("PT1M30S"), is(Duration.ofSeconds(90)));
+    }
+}
@@ -0,0 +1,106 @@
+package com.aimitjava.config;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ConfigMetricsTest {
+    private final Configuration configuration = new Configuration(List.of(ConfigSource.fromMap("file", Map.of(
+            "server.port", "8080",
+            "server.timeout", "soon"))),
+            new EnvironmentProvider(Map.of("app.name", "from-env")::get));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldBeDisabledByDefault() {
+        // When
+        configuration.getProperty("server.port");
+
+        // Then
+        assertThat(configuration.getMetrics(), is(nullValue()));
+    }
+
+    @Test
+    void shouldCountLookupsBySourceOfValue() {
+        // Given
+        ConfigMetrics metrics = configuration.enableMetrics();
+
+        // When
+        configuration.getIntProperty("server.port", 80);
+        configuration.getProperty("server.port");
+        configuration.getProperty("app.name");
+        configuration.hasProperty("non.existent.property");
+        configuration.getProperty("non.existent.property", "default");
+
+        // Then
+        assertThat(metrics.getKeyMetrics("server.port"), is(new ConfigMetrics.KeyMetrics("server.port", 2, 0, 2, 0, 0, 0)));
+        assertThat(metrics.getKeyMetrics("app.name").environmentHits(), is(1L));
+        assertThat(metrics.getKeyMetrics("non.existent.property"),
+                is(new ConfigMetrics.KeyMetrics("non.existent.property", 2, 0, 0, 2, 0, 1)));
+    }
+
+    @Test
+    void shouldCountInvalidValuesFallingBackToDefaults() {
+        // Given
+        ConfigMetrics metrics = configuration.enableMetrics();
+
+        // When
+        int timeout = configuration.getIntProperty("server.timeout", 30);
+
+        // Then
+        assertThat(timeout, is(30));
+        assertThat(metrics.getKeyMetrics("server.timeout").invalidValues(), is(1L));
+        assertThat(metrics.getKeyMetrics("server.timeout").defaultsUsed(), is(1L));
+    }
+
+    @Test
+    void shouldReportHotKeysFirst() {
+        // Given
+        ConfigMetrics metrics = configuration.enableMetrics();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            configuration.getProperty("server.port");
+        }
+        configuration.getProperty("app.name");
+
+        // Then
+        assertThat(metrics.getHotKeys(1).get(0).key(), is("server.port"));
+        assertThat(metrics.getHotKeys(10), hasSize(2));
+    }
+
+    @Test
+    void shouldEmitJfrEventForReload() throws IOException {
+        // Given
+        Path file = tempDir.resolve("recording.jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable("com.aimitjava.config.Load");
+            recording.start();
+            configuration.reload();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events, hasSize(1));
+        assertThat(events.get(0).getBoolean("reload"), is(true));
+        assertThat(events.get(0).getInt("loadedSources"), is(1));
+        assertThat(events.get(0).getInt("entries"), is(2));
+        assertThat(events.get(0).getBoolean("published"), is(true));
+    }
+}
@@ -0,0 +1,145 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ConfigRegistryTest {
+    private static final EnvironmentProvider ENVIRONMENT = new EnvironmentProvider(key -> null);
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        ConfigRegistry.setRetention(ConfigRegistry.Retention.STRONG);
+        ConfigRegistry.invalidateAll();
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("shared.properties");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    void shouldShareValuesOfSameFile() throws IOException {
+        // Given
+        Path file = write("shared.key=value\n");
+
+        // When
+        Configuration first = new Configuration(file.toString(), ENVIRONMENT);
+        LangchainConfiguration second = new LangchainConfiguration(file.toString(), ENVIRONMENT);
+
+        // Then
+        assertThat(sharedValues(second), is(sameInstance(sharedValues(first))));
+        assertThat(second.getProperty("shared.key"), is("value"));
+        assertThat(ConfigRegistry.size(), is(greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    void shouldReadChangedFileAgain() throws IOException {
+        // Given
+        Path file = write("shared.key=value\n");
+        Configuration first = new Configuration(file.toString(), ENVIRONMENT);
+
+        // When
+        write("shared.key=changed value\n");
+        Configuration second = new Configuration(file.toString(), ENVIRONMENT);
+
+        // Then
+        assertThat(second.getProperty("shared.key"), is("changed value"));
+        assertThat(first.getProperty("shared.key"), is("value"));
+        assertThat(sharedValues(second), is(not(sameInstance(sharedValues(first)))));
+    }
+
+    @Test
+    void shouldNotLetSubclassModificationsReachOtherConfigurations() throws IOException {
+        // Given
+        Path file = write("shared.key=value\n");
+        Configuration first = new Configuration(file.toString(), ENVIRONMENT);
+        Configuration second = new Configuration(file.toString(), ENVIRONMENT);
+
+        // When
+        first.properties.setProperty("shared.key", "modified");
+
+        // Then
+        assertThat(second.properties, is(not(sameInstance(first.properties))));
+        assertThat(second.getProperty("shared.key"), is("value"));
+        assertThat(new Configuration(file.toString(), ENVIRONMENT).getProperty("shared.key"), is("value"));
+    }
+
+    @Test
+    void shouldSeeSubclassModificationsOnlyInOwnConfiguration() throws IOException {
+        // Given
+        Path file = write("shared.key=value\nother.key=other\n");
+        Configuration configuration = new Configuration(file.toString(), ENVIRONMENT);
+        assertThat(configuration.properties.getProperty("shared.key"), is("value"));
+        assertThat(configuration.properties.size(), is(2));
+
+        // When - the table is copied from the shared values on the first modification
+        configuration.properties.setProperty("shared.key", "modified");
+
+        // Then
+        assertThat(configuration.getProperty("shared.key"), is("modified"));
+        assertThat(configuration.getProperty("other.key"), is("other"));
+        assertThat(configuration.properties.stringPropertyNames(), containsInAnyOrder("shared.key", "other.key"));
+        assertThat(sharedValues(configuration).get("shared.key"), is("value"));
+    }
+
+    @Test
+    void shouldReadFileAgainOnReload() throws IOException {
+        // Given
+        Path file = write("shared.key=value\n");
+        Configuration configuration = new Configuration(file.toString(), ENVIRONMENT);
+        Map<String, String> loaded = sharedValues(configuration);
+
+        // When
+        configuration.reload();
+
+        // Then
+        assertThat(sharedValues(configuration), is(not(sameInstance(loaded))));
+        assertThat(configuration.getProperty("shared.key"), is("value"));
+    }
+
+    @Test
+    void shouldReadFileAgainAfterInvalidation() throws IOException {
+        // Given
+        Path file = write("shared.key=value\n");
+        Configuration first = new Configuration(file.toString(), ENVIRONMENT);
+
+        // When
+        ConfigRegistry.invalidate(file.toString());
+        Configuration second = new Configuration(file.toString(), ENVIRONMENT);
+
+        // Then
+        assertThat(sharedValues(second), is(not(sameInstance(sharedValues(first)))));
+    }
+
+    @Test
+    void shouldShareValuesWithWeakRetentionWhileInUse() throws IOException {
+        // Given
+        ConfigRegistry.setRetention(ConfigRegistry.Retention.WEAK);
+        Path file = write("shared.key=value\n");
+
+        // When
+        Configuration first = new Configuration(file.toString(), ENVIRONMENT);
+        System.gc();
+        Configuration second = new Configuration(file.toString(), ENVIRONMENT);
+
+        // Then
+        assertThat(sharedValues(second), is(sameInstance(sharedValues(first))));
+    }
+
+    private static Map<String, String> sharedValues(Configuration configuration) {
+        return configuration.snapshot().layers().get(0).values();
+    }
+}
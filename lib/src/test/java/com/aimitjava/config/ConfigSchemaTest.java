@@ -0,0 +1,155 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConfigSchemaTest {
+    private static final EnvironmentProvider ENVIRONMENT = new EnvironmentProvider(key -> null);
+    private static final ConfigKey<String> MODEL_NAME = ConfigKey.ofString("schema.model.name");
+    private static final ConfigKey<Double> TEMPERATURE = ConfigKey.ofDouble("schema.temperature");
+    private static final ConfigKey<Integer> MAX_TOKENS = ConfigKey.ofInt("schema.max.tokens");
+    private static final ConfigSchema SCHEMA = ConfigSchema.builder()
+            .required(MODEL_NAME)
+            .optional(TEMPERATURE, 0.7)
+            .range(TEMPERATURE, 0.0, 2.0)
+            .optional(MAX_TOKENS)
+            .check(MAX_TOKENS, value -> value > 0, "must be positive")
+            .build();
+
+    @TempDir
+    Path tempDir;
+
+    private static Configuration configuration(Map<String, String> values) {
+        return new Configuration(List.of(ConfigSource.fromMap("values", values)), ENVIRONMENT);
+    }
+
+    @Test
+    void shouldReadValidatedValuesAndDefaults() {
+        // Given
+        Configuration configuration = configuration(Map.of("schema.model.name", "gpt-4o", "schema.max.tokens", "100"));
+
+        // When
+        configuration.setSchema(SCHEMA);
+
+        // Then
+        assertThat(configuration.get(MODEL_NAME), is("gpt-4o"));
+        assertThat(configuration.get(TEMPERATURE), is(0.7));
+        assertThat(configuration.getDoubleProperty("schema.temperature", 0.0), is(0.7));
+        assertThat(configuration.getIntProperty("schema.max.tokens", 0), is(100));
+        assertThat(configuration.getSchema(), is(SCHEMA));
+    }
+
+    @Test
+    void shouldReportAllViolationsTogether() {
+        // Given
+        Configuration configuration = configuration(Map.of("schema.temperature", "0,7", "schema.max.tokens", "-1"));
+
+        // When
+        ConfigurationException exception = assertThrows(ConfigurationException.class, () -> configuration.setSchema(SCHEMA));
+
+        // Then
+        assertThat(exception.getViolations(), contains(
+                "schema.model.name is required",
+                "schema.temperature is invalid: 0,7",
+                "schema.max.tokens must be positive: -1"));
+        assertThat(configuration.getSchema(), is(nullValue()));
+    }
+
+    @Test
+    void shouldKeepViolationsInMessageOfDeserializedException() throws Exception {
+        // Given
+        ConfigurationException exception = new ConfigurationException("Invalid configuration", List.of("a is required"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(exception);
+        }
+
+        // When
+        ConfigurationException copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (ConfigurationException) in.readObject();
+        }
+
+        // Then
+        assertThat(copy.getMessage(), is("Invalid configuration: a is required"));
+        assertThat(copy.getViolations(), is(empty()));
+    }
+
+    @Test
+    void shouldRejectValuesOutOfRange() {
+        // Given
+        Configuration configuration = configuration(Map.of("schema.model.name", "gpt-4o", "schema.temperature", "2.5"));
+
+        // When
+        ConfigurationException exception = assertThrows(ConfigurationException.class, () -> configuration.setSchema(SCHEMA));
+
+        // Then
+        assertThat(exception.getViolations(), contains("schema.temperature must be between 0.0 and 2.0: 2.5"));
+    }
+
+    @Test
+    void shouldValidateEnvironmentOverrides() {
+        // Given
+        Configuration configuration = new Configuration(List.of(ConfigSource.fromMap("values", Map.of("schema.model.name", "gpt-4o"))),
+                new EnvironmentProvider(Map.of("SCHEMA_TEMPERATURE", "9")::get));
+
+        // When
+        ConfigurationException exception = assertThrows(ConfigurationException.class, () -> configuration.setSchema(SCHEMA));
+
+        // Then
+        assertThat(exception.getMessage(), containsString("schema.temperature must be between 0.0 and 2.0: 9"));
+    }
+
+    @Test
+    void shouldKeepPreviousValuesWhenReloadViolatesSchema() throws IOException {
+        // Given
+        Path file = tempDir.resolve("schema.properties");
+        Files.writeString(file, "schema.model.name=gpt-4o\nschema.temperature=0.2\n");
+        Configuration configuration = new Configuration(List.of(ConfigSource.propertiesFile(file.toString())), ENVIRONMENT);
+        configuration.setSchema(SCHEMA);
+
+        // When
+        Files.writeString(file, "schema.model.name=gpt-4o\nschema.temperature=0,3\n");
+        configuration.reload();
+
+        // Then
+        assertThat(configuration.get(TEMPERATURE), is(0.2));
+
+        // When
+        Files.writeString(file, "schema.model.name=gpt-4o\nschema.temperature=0.3\n");
+        configuration.reload();
+
+        // Then
+        assertThat(configuration.get(TEMPERATURE), is(0.3));
+    }
+
+    @Test
+    void shouldRejectRulesForUndeclaredKeys() {
+        assertThrows(IllegalArgumentException.class, () -> ConfigSchema.builder().range(TEMPERATURE, 0.0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> ConfigSchema.builder().optional(TEMPERATURE).required(TEMPERATURE));
+    }
+
+    @Test
+    void shouldValidateOpenAiSettings() {
+        // Given
+        LangchainConfiguration configuration = new LangchainConfiguration(
+                List.of(ConfigSource.fromMap("values", Map.of("openai.temperature", "0,7"))), ENVIRONMENT);
+
+        // Then
+        assertThrows(ConfigurationException.class, () -> configuration.setSchema(LangchainConfiguration.OPENAI_SCHEMA));
+    }
+}
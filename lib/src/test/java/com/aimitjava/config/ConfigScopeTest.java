@@ -0,0 +1,133 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ConfigScopeTest {
+    private static final EnvironmentProvider ENVIRONMENT = new EnvironmentProvider(Map.of("OPENAI_API_KEY", "env-key")::get);
+
+    private static LangchainConfiguration configuration() {
+        return new LangchainConfiguration(List.of(ConfigSource.fromMap("values", Map.of(
+                "openai.model.name", "gpt-4o-mini",
+                "openai.temperature", "0.7"))), ENVIRONMENT);
+    }
+
+    @Test
+    void shouldOverrideValuesWithinScope() {
+        // Given
+        LangchainConfiguration configuration = configuration();
+
+        // When
+        ConfigScope.with("openai.model.name", "gpt-4o").and("openai.temperature", "0.2").run(() -> {
+            // Then
+            assertThat(configuration.getProperty("openai.model.name"), is("gpt-4o"));
+            assertThat(configuration.getOpenAiModelName(), is("gpt-4o"));
+            assertThat(configuration.getOpenAiTemperature(), is(0.2));
+            assertThat(configuration.getDoubleProperty("openai.temperature", 0.0), is(0.2));
+            assertThat(configuration.getPropertySource("openai.temperature"), is("scope"));
+            assertThat(configuration.getOpenAiSettings().modelName(), is("gpt-4o"));
+        });
+
+        // Then
+        assertThat(configuration.getOpenAiModelName(), is("gpt-4o-mini"));
+        assertThat(configuration.getOpenAiTemperature(), is(0.7));
+        assertThat(configuration.getOpenAiSettings().modelName(), is("gpt-4o-mini"));
+    }
+
+    @Test
+    void shouldTakePrecedenceOverEnvironment() throws Exception {
+        // Given
+        LangchainConfiguration configuration = configuration();
+
+        // When
+        String apiKey = ConfigScope.with("openai.api.key", "user-key").call(configuration::getOpenAiApiKey);
+
+        // Then
+        assertThat(apiKey, is("user-key"));
+        assertThat(configuration.getOpenAiApiKey(), is("env-key"));
+    }
+
+    @Test
+    void shouldRestoreOuterScopeAfterNestedScope() {
+        // Given
+        Configuration configuration = configuration();
+
+        ConfigScope.with(Map.of("openai.model.name", "outer", "openai.temperature", "0.1")).run(() -> {
+            // When
+            ConfigScope.with("openai.model.name", "inner").run(() -> {
+                // Then
+                assertThat(configuration.getProperty("openai.model.name"), is("inner"));
+                assertThat(configuration.getProperty("openai.temperature"), is("0.1"));
+            });
+
+            // Then
+            assertThat(configuration.getProperty("openai.model.name"), is("outer"));
+        });
+        assertThat(ConfigScope.current(), is(nullValue()));
+    }
+
+    @Test
+    void shouldPropagateToThreadsStartedWithinScopeOnlyIfWrapped() throws Exception {
+        // Given
+        Configuration configuration = configuration();
+        AtomicReference<String> wrapped = new AtomicReference<>();
+        AtomicReference<String> unwrapped = new AtomicReference<>();
+
+        // When
+        ConfigScope.with("openai.model.name", "gpt-4o").call(() -> {
+            Thread.ofVirtual().start(ConfigScope.wrap(() -> wrapped.set(configuration.getProperty("openai.model.name")))).join();
+            Thread.ofVirtual().start(() -> unwrapped.set(configuration.getProperty("openai.model.name"))).join();
+            return null;
+        });
+
+        // Then
+        assertThat(wrapped.get(), is("gpt-4o"));
+        assertThat(unwrapped.get(), is("gpt-4o-mini"));
+    }
+
+    @Test
+    void shouldNotLeakScopeIntoPoolThreadsCreatedWithinScope() throws Exception {
+        // Given
+        Configuration configuration = configuration();
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            // Start the pool thread inside a scope
+            ConfigScope.with("openai.model.name", "tenantA").call(() -> executor.submit(() -> null).get());
+
+            // When
+            String seen = ConfigScope.with("openai.temperature", "0.2").call(() ->
+                    executor.submit(() -> configuration.getProperty("openai.model.name")).get());
+
+            // Then
+            assertThat(seen, is("gpt-4o-mini"));
+        }
+    }
+
+    @Test
+    void shouldBindWrappedTasksToScope() throws Exception {
+        // Given
+        Configuration configuration = configuration();
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            // Start the pool thread outside of any scope
+            executor.submit(() -> null).get();
+
+            // When
+            Future<String> wrapped = ConfigScope.with("openai.model.name", "gpt-4o").call(() ->
+                    executor.submit(ConfigScope.wrap(() -> configuration.getProperty("openai.model.name"))));
+            Future<String> unwrapped = ConfigScope.with("openai.model.name", "gpt-4o").call(() ->
+                    executor.submit(() -> configuration.getProperty("openai.model.name")));
+
+            // Then
+            assertThat(wrapped.get(), is("gpt-4o"));
+            assertThat(unwrapped.get(), is("gpt-4o-mini"));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ConfigSourceTest {
+    private static final EnvironmentProvider ENVIRONMENT = new EnvironmentProvider(Map.of("env.key", "from-env")::get);
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("test.string.property");
+    }
+
+    @Test
+    void shouldResolvePrecedenceAcrossSources() {
+        // Given
+        System.setProperty("test.string.property", "from-system");
+        Configuration configuration = new Configuration(List.of(
+                ConfigSource.fromMap("overrides", Map.of("test.int.property", "7")),
+                ConfigSource.systemProperties(),
+                ConfigSource.propertiesFile("application.properties"),
+                ConfigSource.fromMap("defaults", Map.of("test.int.property", "1", "only.default", "d", "env.key", "x"))),
+                ENVIRONMENT);
+
+        // Then
+        assertThat(configuration.getIntProperty("test.int.property", 0), is(7));
+        assertThat(configuration.getProperty("test.string.property"), is("from-system"));
+        assertThat(configuration.getDoubleProperty("test.double.property", 0.0), is(3.14));
+        assertThat(configuration.getProperty("only.default"), is("d"));
+        assertThat(configuration.getProperty("env.key"), is("from-env"));
+    }
+
+    @Test
+    void shouldReportProvenanceOfEffectiveValues() {
+        // Given
+        Configuration configuration = new Configuration(List.of(
+                ConfigSource.fromMap("overrides", Map.of("test.int.property", "7")),
+                ConfigSource.propertiesFile("application.properties")),
+                ENVIRONMENT);
+
+        // Then
+        assertThat(configuration.getPropertySource("test.int.property"), is("overrides"));
+        assertThat(configuration.getPropertySource("test.double.property"), is("application.properties"));
+        assertThat(configuration.getPropertySource("env.key"), is("environment"));
+        assertThat(configuration.getPropertySource("non.existent.property"), is(nullValue()));
+    }
+
+    @Test
+    void shouldSkipMissingSourcesOnInitialLoad() {
+        // Given
+        Configuration configuration = new Configuration(List.of(
+                ConfigSource.propertiesFile("does-not-exist.properties"),
+                ConfigSource.propertiesFile("application.properties")),
+                ENVIRONMENT);
+
+        // Then
+        assertThat(configuration.getProperty("test.string.property"), is("test-value"));
+    }
+
+    @Test
+    void shouldRecombineSourcesOnReload(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("layer.properties");
+        Files.writeString(file, "openai.model.name=gpt-4\n");
+        Configuration configuration = new Configuration(List.of(
+                ConfigSource.propertiesFile(file.toString()),
+                ConfigSource.fromMap("defaults", Map.of("openai.model.name", "default-model", "openai.temperature", "0.7"))),
+                ENVIRONMENT);
+        assertThat(configuration.getProperty("openai.model.name"), is("gpt-4"));
+
+        // When
+        Files.writeString(file, "openai.temperature=0.2\n");
+        configuration.reload();
+
+        // Then
+        assertThat(configuration.getProperty("openai.model.name"), is("default-model"));
+        assertThat(configuration.getDoubleProperty("openai.temperature", 0.0), is(0.2));
+        assertThat(configuration.getPropertySource("openai.model.name"), is("defaults"));
+    }
+
+    @Test
+    void shouldSkipSourcesMissingSinceInitialLoadOnReload(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("main.properties");
+        Files.writeString(file, "k=1\n");
+        Configuration configuration = new Configuration(List.of(
+                ConfigSource.propertiesFile(tempDir.resolve("optional.properties").toString()),
+                ConfigSource.propertiesFile(file.toString())),
+                ENVIRONMENT);
+
+        // When
+        Files.writeString(file, "k=2\n");
+        configuration.reload();
+
+        // Then
+        assertThat(configuration.getProperty("k"), is("2"));
+    }
+
+    @Test
+    void shouldKeepPreviousValuesIfLoadedSourceDisappears(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path optional = tempDir.resolve("optional.properties");
+        Files.writeString(optional, "k=1\n");
+        Configuration configuration = new Configuration(List.of(
+                ConfigSource.propertiesFile(optional.toString()),
+                ConfigSource.fromMap("defaults", Map.of("k", "0"))),
+                ENVIRONMENT);
+
+        // When
+        Files.delete(optional);
+        configuration.reload();
+
+        // Then
+        assertThat(configuration.getProperty("k"), is("1"));
+    }
+
+    @Test
+    void shouldLoadSourcesConcurrentlyAndReportTimings() {
+        // Given - four slow sources defining the same key
+        List<ConfigSource> sources = List.of(
+                slowSource("first", Map.of("key", "1")),
+                slowSource("second", Map.of("key", "2", "second.only", "yes")),
+                slowSource("third", Map.of("key", "3")),
+                ConfigSource.propertiesFile("does-not-exist.properties"));
+
+        // When
+        Configuration configuration = new Configuration(sources, ENVIRONMENT);
+
+        // Then - merged by precedence, not by completion order
+        assertThat(configuration.getProperty("key"), is("1"));
+        assertThat(configuration.getProperty("second.only"), is("yes"));
+
+        ConfigLoadReport report = configuration.getLoadReport();
+        assertThat(report.total(), is(lessThan(Duration.ofMillis(900))));
+        assertThat(report.sources().stream().map(ConfigLoadReport.SourceLoad::source).toList(),
+                contains("first", "second", "third", "does-not-exist.properties"));
+        assertThat(report.sources().get(1).status(), is(ConfigLoadReport.Status.LOADED));
+        assertThat(report.sources().get(1).entries(), is(2));
+        assertThat(report.sources().get(1).duration(), is(greaterThanOrEqualTo(Duration.ofMillis(300))));
+        assertThat(report.sources().get(3).status(), is(ConfigLoadReport.Status.MISSING));
+    }
+
+    @Test
+    void shouldReportFailingSourceAlikeWhetherLoadedAloneOrWithOthers() {
+        // Given - a source throwing an unchecked exception
+        ConfigSource failing = failingSource("failing");
+
+        // When
+        Configuration alone = new Configuration(List.of(failing), ENVIRONMENT);
+        Configuration withOthers = new Configuration(List.of(
+                failing, ConfigSource.propertiesFile("application.properties")), ENVIRONMENT);
+
+        // Then
+        assertThat(alone.getLoadReport().sources().get(0).status(), is(ConfigLoadReport.Status.FAILED));
+        assertThat(withOthers.getLoadReport().sources().get(0).status(), is(ConfigLoadReport.Status.FAILED));
+        assertThat(withOthers.getProperty("test.string.property"), is("test-value"));
+    }
+
+    private static ConfigSource failingSource(String name) {
+        return new ConfigSource() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Map<String, String> load() {
+                throw new IllegalStateException("broken source");
+            }
+        };
+    }
+
+    private static ConfigSource slowSource(String name, Map<String, String> values) {
+        return new ConfigSource() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Map<String, String> load() {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return values;
+            }
+        };
+    }
+}
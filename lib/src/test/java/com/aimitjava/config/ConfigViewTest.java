@@ -0,0 +1,118 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ConfigViewTest {
+    private static final Map<String, String> VALUES = Map.of(
+            "model.gpt-4o.name", "gpt-4o",
+            "model.gpt-4o.temperature", "0.2",
+            "model.claude.name", "claude",
+            "model.claude-fast.name", "claude-fast",
+            "model", "not in namespace",
+            "modelling.enabled", "true",
+            "openai.model.name", "gpt-4o-mini",
+            "openai.temperature", "${model.gpt-4o.temperature}");
+
+    private Configuration configuration(Map<String, String> environment) {
+        return new Configuration(List.of(ConfigSource.fromMap("values", VALUES)),
+                new EnvironmentProvider(environment::get));
+    }
+
+    @Test
+    void shouldReturnKeysByPrefixInSortedOrder() {
+        // When
+        Map<String, String> models = configuration(Map.of()).getByPrefix("model.");
+
+        // Then
+        assertThat(new ArrayList<>(models.keySet()), contains(
+                "model.claude-fast.name", "model.claude.name", "model.gpt-4o.name", "model.gpt-4o.temperature"));
+        assertThat(models.get("model.claude.name"), is("claude"));
+        assertThat(models.containsKey("modelling.enabled"), is(false));
+        assertThat(models.get("openai.model.name"), is(nullValue()));
+        assertThat(models.size(), is(4));
+    }
+
+    @Test
+    void shouldReturnEmptyViewForUnknownPrefix() {
+        // When
+        Map<String, String> values = configuration(Map.of()).getByPrefix("unknown.");
+
+        // Then
+        assertThat(values.isEmpty(), is(true));
+    }
+
+    @Test
+    void shouldResolvePrefixValuesWithEnvironmentPrecedence() {
+        // Given
+        Configuration configuration = configuration(Map.of("OPENAI_MODEL_NAME", "from-env"));
+
+        // When
+        Map<String, String> openai = configuration.getByPrefix("openai.");
+
+        // Then
+        assertThat(openai, is(Map.of("openai.model.name", "from-env", "openai.temperature", "0.2")));
+    }
+
+    @Test
+    void shouldAddressNamespaceByRelativeNames() {
+        // When
+        ConfigView view = configuration(Map.of()).getView("model.gpt-4o");
+
+        // Then
+        assertThat(view.getNamespace(), is("model.gpt-4o."));
+        assertThat(view.getProperty("name"), is("gpt-4o"));
+        assertThat(view.getDoubleProperty("temperature", 0.0), is(0.2));
+        assertThat(view.getIntProperty("max.tokens", 100), is(100));
+        assertThat(view.hasProperty("name"), is(true));
+        assertThat(view.keys(), contains("name", "temperature"));
+        assertThat(view.asMap(), is(Map.of("name", "gpt-4o", "temperature", "0.2")));
+    }
+
+    @Test
+    void shouldListChildNamespaces() {
+        // When
+        ConfigView models = configuration(Map.of()).getView("model");
+
+        // Then
+        assertThat(models.getChildNames(), contains("claude", "claude-fast", "gpt-4o"));
+        assertThat(models.getView("claude").getProperty("name"), is("claude"));
+    }
+
+    @Test
+    void shouldApplyActiveScopeToViewsAndPrefixQueries() {
+        // Given
+        Configuration configuration = configuration(Map.of());
+        ConfigView view = configuration.getView("model.gpt-4o");
+        List<Map<String, String>> byPrefix = new ArrayList<>();
+        List<ConfigView> children = new ArrayList<>();
+
+        // When
+        ConfigScope.with("model.gpt-4o.temperature", "0.9")
+                .and("model.mistral.name", "mistral")
+                .run(() -> {
+                    byPrefix.add(configuration.getByPrefix("model."));
+                    byPrefix.add(view.asMap());
+                    assertThat(view.getProperty("temperature"), is("0.9"));
+                    assertThat(configuration.getView("model").getChildNames(),
+                            contains("claude", "claude-fast", "gpt-4o", "mistral"));
+                    children.add(configuration.getView("model.mistral"));
+                    assertThat(children.get(0).keys(), contains("name"));
+                });
+
+        // Then - the scope is captured when the view is created
+        assertThat(byPrefix.get(0).get("model.gpt-4o.temperature"), is("0.9"));
+        assertThat(byPrefix.get(0).get("model.mistral.name"), is("mistral"));
+        assertThat(byPrefix.get(0).size(), is(5));
+        assertThat(byPrefix.get(1), is(Map.of("name", "gpt-4o", "temperature", "0.9")));
+        assertThat(configuration.getByPrefix("model.").containsKey("model.mistral.name"), is(false));
+        assertThat(view.asMap(), is(Map.of("name", "gpt-4o", "temperature", "0.2")));
+        assertThat(children.get(0).keys(), is(empty()));
+    }
+}
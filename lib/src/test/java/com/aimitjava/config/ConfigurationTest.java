@@ -4,8 +4,16 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.when;
@@ -66,6 +74,24 @@ class ConfigurationTest {
             // Then
             assertThat(configuration.getProperty("test.property"), is("env-value"));
         }
+
+        @Test
+        void shouldParseTypedValuesOnlyOnce() {
+            // Given
+            when(mockReader.getEnvironmentVariable("cached.int")).thenReturn("17");
+            when(mockReader.getEnvironmentVariable("invalid.int")).thenReturn("not-a-number");
+            configuration = new Configuration("empty.properties", environmentProvider);
+
+            // When
+            for (int i = 0; i < 3; i++) {
+                assertThat(configuration.getIntProperty("cached.int", 0), is(17));
+                assertThat(configuration.getIntProperty("invalid.int", i), is(i));
+            }
+
+            // Then - each key was resolved once, invalid values fall back to the current default
+            Mockito.verify(mockReader, Mockito.times(1)).getEnvironmentVariable("cached.int");
+            Mockito.verify(mockReader, Mockito.times(1)).getEnvironmentVariable("invalid.int");
+        }
     }
 
     @Nested
@@ -172,4 +198,108 @@ class ConfigurationTest {
             assertThat(configuration.getIntProperty("test.int.property", 0), is(42));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class ReloadTests {
+        @TempDir
+        Path tempDir;
+
+        private Path propertiesFile;
+        private Configuration configuration;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            propertiesFile = tempDir.resolve("reload.properties");
+            Files.writeString(propertiesFile, "openai.model.name=gpt-4\nopenai.temperature=0.5\n");
+            configuration = new Configuration(propertiesFile.toString(), new EnvironmentProvider(key -> null));
+        }
+
+        @AfterEach
+        void tearDown() {
+            configuration.disableReload();
+        }
+
+        @Test
+        void shouldLoadPropertiesFromFileSystem() {
+            assertThat(configuration.getProperty("openai.model.name"), is("gpt-4"));
+        }
+
+        @Test
+        void shouldPublishNewValuesOnReload() throws IOException {
+            // Given - typed value is cached from the first load
+            assertThat(configuration.getDoubleProperty("openai.temperature", 0.0), is(0.5));
+
+            // When
+            Files.writeString(propertiesFile, "openai.model.name=gpt-4o\nopenai.temperature=0.9\n");
+            configuration.reload();
+
+            // Then
+            assertThat(configuration.getProperty("openai.model.name"), is("gpt-4o"));
+            assertThat(configuration.getDoubleProperty("openai.temperature", 0.0), is(0.9));
+        }
+
+        @Test
+        void shouldKeepPreviousValuesWhenFileDisappears() throws IOException {
+            // When
+            Files.delete(propertiesFile);
+            configuration.reload();
+
+            // Then
+            assertThat(configuration.getProperty("openai.model.name"), is("gpt-4"));
+        }
+
+        @Test
+        void shouldReloadAutomaticallyWhenFileChanges() throws Exception {
+            // Given
+            configuration.enableReload(Duration.ofMillis(50));
+
+            // When
+            Files.writeString(propertiesFile, "openai.model.name=gpt-4o-mini\n");
+
+            // Then
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (!"gpt-4o-mini".equals(configuration.getProperty("openai.model.name"))
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(configuration.getProperty("openai.model.name"), is("gpt-4o-mini"));
+            assertThat(configuration.hasProperty("openai.temperature"), is(false));
+        }
+
+        @Test
+        void shouldKeepSchemaDefaultsVisibleWhileReloading() throws Exception {
+            // Given
+            ConfigKey<Integer> retries = ConfigKey.ofInt("reload.retries");
+            configuration.setSchema(ConfigSchema.builder().optional(retries, 3).build());
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicInteger misses = new AtomicInteger();
+            Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    if (configuration.get(retries) == null) {
+                        misses.incrementAndGet();
+                    }
+                }
+            });
+            reader.start();
+
+            // When - readers must never take a table being published for a subclass replacement
+            for (int i = 0; i < 2000; i++) {
+                configuration.reload();
+            }
+            done.set(true);
+            reader.join();
+
+            // Then
+            assertThat(misses.get(), is(0));
+        }
+
+        @Test
+        void shouldRejectReloadForMissingFile() {
+            // Given
+            Configuration missing = new Configuration("does-not-exist.properties", new EnvironmentProvider(key -> null));
+
+            // Then
+            org.junit.jupiter.api.Assertions.assertThrows(IllegalStateException.class, missing::enableReload);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class EnvironmentProviderTest {
+
+    @AfterEach
+    void tearDown() {
+        EnvironmentProvider.reset();
+        System.clearProperty(EnvironmentProvider.SNAPSHOT_PROPERTY);
+    }
+
+    @Test
+    void shouldReturnOnlyNonBlankValuesFromSnapshot() {
+        // Given
+        EnvironmentProvider provider = new EnvironmentProvider(
+                new EnvironmentProvider.SnapshotEnvironmentReader(Map.of("SET", " value ", "BLANK", " \t")));
+
+        // Then
+        assertThat(provider.getEnv("SET"), is(" value "));
+        assertThat(provider.getEnv("BLANK"), is(" \t"));
+        assertThat(provider.getNonBlankEnv("SET"), is(" value "));
+        assertThat(provider.getNonBlankEnv("BLANK"), is(nullValue()));
+        assertThat(provider.getNonBlankEnv("MISSING"), is(nullValue()));
+    }
+
+    @Test
+    void shouldFilterBlankValuesFromOtherReaders() {
+        // Given
+        Map<String, String> env = Map.of("SET", "value", "BLANK", "  ");
+        EnvironmentProvider provider = new EnvironmentProvider(env::get);
+
+        // Then
+        assertThat(provider.getNonBlankEnv("SET"), is("value"));
+        assertThat(provider.getNonBlankEnv("BLANK"), is(nullValue()));
+    }
+
+    @Test
+    void shouldMatchSystemEnvironmentWhenSnapshotSelected() {
+        // Given
+        System.setProperty(EnvironmentProvider.SNAPSHOT_PROPERTY, "true");
+        String anyVariable = System.getenv().keySet().stream().findFirst().orElse("PATH");
+
+        // When
+        EnvironmentProvider provider = EnvironmentProvider.getInstance();
+
+        // Then
+        assertThat(provider.getEnv(anyVariable), is(System.getenv(anyVariable)));
+    }
+
+    @Test
+    void shouldMapDottedKeysToEnvironmentStyleWithIndex() {
+        // Given
+        EnvironmentProvider provider = new EnvironmentProvider(new EnvironmentProvider.SnapshotEnvironmentReader(Map.of(
+                "OPENAI_MODEL_NAME", "gpt-4o",
+                "openai_model_name", "lower-case",
+                "DATABASE_URL", "jdbc:h2:mem:test",
+                "database.url", "literal",
+                "BLANK_VALUE", " ")));
+
+        // Then
+        assertThat(provider.getRelaxedEnv("openai.model.name"), is("gpt-4o"));
+        assertThat(provider.getRelaxedEnv("openai.model-name"), is("gpt-4o"));
+        assertThat(provider.getRelaxedEnv("OPENAI_MODEL_NAME"), is("gpt-4o"));
+        assertThat(provider.getRelaxedEnv("database.url"), is("literal"));
+        assertThat(provider.getRelaxedEnv("blank.value"), is(nullValue()));
+        assertThat(provider.getRelaxedEnv("missing.key"), is(nullValue()));
+    }
+
+    @Test
+    void shouldMapDottedKeysToEnvironmentStyleWithoutIndex() {
+        // Given
+        Map<String, String> env = Map.of("OPENAI_MODEL_NAME", "gpt-4o", "server.port", "8080");
+        EnvironmentProvider provider = new EnvironmentProvider(env::get);
+
+        // Then
+        assertThat(provider.getRelaxedEnv("openai.model.name"), is("gpt-4o"));
+        assertThat(provider.getRelaxedEnv("server.port"), is("8080"));
+        assertThat(provider.getRelaxedEnv("missing.key"), is(nullValue()));
+    }
+
+    @Test
+    void shouldPreferEnvironmentStyleVariableInConfiguration() {
+        // Given
+        EnvironmentProvider provider = new EnvironmentProvider(
+                new EnvironmentProvider.SnapshotEnvironmentReader(Map.of("OPENAI_TEMPERATURE", "0.1")));
+        Configuration configuration = new Configuration(List.of(
+                ConfigSource.fromMap("file", Map.of("openai.temperature", "0.7"))), provider);
+
+        // Then
+        assertThat(configuration.getDoubleProperty("openai.temperature", 0.0), is(0.1));
+        assertThat(configuration.getPropertySource("openai.temperature"), is("environment"));
+    }
+}
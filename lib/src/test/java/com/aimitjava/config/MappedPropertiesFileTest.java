@@ -0,0 +1,122 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedPropertiesFileTest {
+    private static final EnvironmentProvider ENVIRONMENT = new EnvironmentProvider(key -> null);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldParseLikePropertiesLoad() throws IOException {
+        // Given
+        String content = "# comment\n"
+                + "! another comment \\\n"
+                + "simple=value\n"
+                + "  indented : spaced value  \n"
+                + "whitespace separated\n"
+                + "empty=\n"
+                + "keyonly\n"
+                + "escaped\\ key\\=x = a\\tb\\nc\\\\\n"
+                + "unicode=gr\\u00FC\\u00DFe \u00e4\n"
+                + "multi = first \\\n"
+                + "        second \\\r\n"
+                + "\tthird\r\n"
+                + "\n"
+                + "continued\\\n"
+                + "  key=joined\n"
+                + "duplicate=old\r"
+                + "duplicate=new\n"
+                + "blank.after.continuation=x\\\n"
+                + "\n"
+                + "last=end\\";
+        Path file = write(content);
+
+        // When
+        MappedPropertiesFile mapped = MappedPropertiesFile.open(file);
+
+        // Then
+        assertThat(new HashMap<>(mapped), is(loadWithProperties(file)));
+        assertThat(mapped.get("multi"), is("first second third"));
+        assertThat(mapped.get("escaped key=x"), is("a\tb\nc\\"));
+        assertThat(mapped.size(), is(loadWithProperties(file).size()));
+    }
+
+    @Test
+    void shouldDecodeValuesOnlyOnce() throws IOException {
+        // Given
+        MappedPropertiesFile mapped = MappedPropertiesFile.open(write("prompt=Answer in \\u0041 sentences\n"));
+
+        // When
+        String first = mapped.get("prompt");
+
+        // Then
+        assertThat(first, is("Answer in A sentences"));
+        assertThat(mapped.get("prompt"), is(sameInstance(first)));
+        assertThat(mapped.containsKey("missing"), is(false));
+    }
+
+    @Test
+    void shouldRejectMalformedUnicodeEscapesWhenIndexing() throws IOException {
+        // Given
+        Path file = write("broken=\\u12G4\n");
+
+        // Then
+        assertThrows(IOException.class, () -> MappedPropertiesFile.open(file));
+    }
+
+    @Test
+    void shouldCombineMappedCatalogWithOtherSources() throws IOException {
+        // Given
+        StringBuilder catalog = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            catalog.append("prompt.").append(i).append(" = Template number ").append(i).append('\n');
+        }
+        Path file = write(catalog.toString());
+        Configuration configuration = new Configuration(List.of(
+                ConfigSource.fromMap("overrides", Map.of("prompt.7", "overridden")),
+                ConfigSource.mappedPropertiesFile(file),
+                ConfigSource.fromMap("defaults", Map.of("prompt.9", "default", "only.default", "d"))),
+                ENVIRONMENT);
+
+        // Then
+        assertThat(configuration.getProperty("prompt.7"), is("overridden"));
+        assertThat(configuration.getProperty("prompt.9"), is("Template number 9"));
+        assertThat(configuration.getProperty("prompt.9999"), is("Template number 9999"));
+        assertThat(configuration.getProperty("only.default"), is("d"));
+        assertThat(configuration.getPropertySource("prompt.42"), is(file.toString()));
+        assertThat(configuration.hasProperty("prompt.10000"), is(false));
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("catalog.properties");
+        Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+        return file;
+    }
+
+    private static Map<String, String> loadWithProperties(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+        }
+        Map<String, String> values = new HashMap<>();
+        properties.stringPropertyNames().forEach(key -> values.put(key, properties.getProperty(key)));
+        return values;
+    }
+}
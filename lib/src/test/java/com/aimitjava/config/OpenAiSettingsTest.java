@@ -0,0 +1,129 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OpenAiSettingsTest {
+
+    @Test
+    void shouldBuildDefaultProfileWithDefaults() {
+        // Given
+        LangchainConfiguration configuration = configuration(Map.of(
+                "openai.api.key", "sk-default",
+                "openai.model.name", "gpt-4o-mini"));
+
+        // When
+        OpenAiSettings settings = configuration.getOpenAiSettings();
+
+        // Then
+        assertThat(settings, is(new OpenAiSettings("default", "sk-default", "gpt-4o-mini", 0.7, null,
+                Duration.ofSeconds(60), 3, null)));
+        assertThat(settings.toString(), not(containsString("sk-default")));
+    }
+
+    @Test
+    void shouldReturnSameInstanceUntilReload() {
+        // Given
+        LangchainConfiguration configuration = configuration(Map.of(
+                "openai.api.key", "sk-default",
+                "openai.model.name", "gpt-4o-mini"));
+
+        // When
+        OpenAiSettings first = configuration.getOpenAiSettings();
+
+        // Then
+        assertThat(configuration.getOpenAiSettings(), is(sameInstance(first)));
+        configuration.reload();
+        assertThat(configuration.getOpenAiSettings(), is(not(sameInstance(first))));
+        assertThat(configuration.getOpenAiSettings(), is(first));
+    }
+
+    @Test
+    void shouldInheritDefaultsInNamedProfiles() {
+        // Given
+        LangchainConfiguration configuration = configuration(Map.of(
+                "openai.api.key", "sk-default",
+                "openai.model.name", "gpt-4o-mini",
+                "openai.timeout", "PT30S",
+                "openai.profile.creative.temperature", "1.2",
+                "openai.profile.reasoning.model.name", "o3-mini",
+                "openai.profile.reasoning.api.key", "sk-reasoning",
+                "openai.profile.reasoning.max.tokens", "4096"));
+
+        // When
+        OpenAiSettings creative = configuration.getOpenAiSettings("creative");
+        OpenAiSettings reasoning = configuration.getOpenAiSettings("reasoning");
+
+        // Then
+        assertThat(configuration.getOpenAiProfiles(), contains("creative", "default", "reasoning"));
+        assertThat(creative.modelName(), is("gpt-4o-mini"));
+        assertThat(creative.temperature(), is(1.2));
+        assertThat(creative.timeout(), is(Duration.ofSeconds(30)));
+        assertThat(reasoning.apiKey(), is("sk-reasoning"));
+        assertThat(reasoning.maxTokens(), is(4096));
+        assertThrows(IllegalArgumentException.class, () -> configuration.getOpenAiSettings("unknown"));
+    }
+
+    @Test
+    void shouldReportAllInvalidSettingsOfAProfileAtOnce() {
+        // Given
+        LangchainConfiguration configuration = configuration(Map.of(
+                "openai.api.key", "sk-default",
+                "openai.temperature", "warm",
+                "openai.profile.fast.max.tokens", "0"));
+
+        // When
+        ConfigurationException defaultProfile = assertThrows(ConfigurationException.class, configuration::getOpenAiSettings);
+        ConfigurationException fastProfile = assertThrows(ConfigurationException.class, () -> configuration.getOpenAiSettings("fast"));
+
+        // Then
+        assertThat(defaultProfile.getMessage(), allOf(
+                containsString("openai.temperature is invalid"),
+                containsString("no model name"),
+                not(containsString("max.tokens must be positive"))));
+        assertThat(fastProfile.getMessage(), allOf(
+                containsString("no model name"),
+                containsString("max.tokens must be positive")));
+    }
+
+    @Test
+    void shouldValidateProfilesIndependently() {
+        // Given - the default profile has no API key, the named profile has its own
+        LangchainConfiguration configuration = configuration(Map.of(
+                "openai.model.name", "gpt-4o-mini",
+                "openai.profile.fast.api.key", "sk-fast"));
+
+        // When
+        OpenAiSettings fast = configuration.getOpenAiSettings("fast");
+
+        // Then
+        assertThat(fast.apiKey(), is("sk-fast"));
+        assertThat(fast.modelName(), is("gpt-4o-mini"));
+        assertThat(configuration.getOpenAiProfiles(), contains("default", "fast"));
+        assertThrows(ConfigurationException.class, configuration::getOpenAiSettings);
+    }
+
+    @Test
+    void shouldBuildInvalidProfilesOncePerLoad() {
+        // Given
+        LangchainConfiguration configuration = configuration(Map.of("openai.model.name", "gpt-4o-mini"));
+
+        // When
+        ConfigurationException first = assertThrows(ConfigurationException.class, configuration::getOpenAiSettings);
+        ConfigurationException second = assertThrows(ConfigurationException.class, configuration::getOpenAiSettings);
+
+        // Then
+        assertThat(second.getViolations(), is(sameInstance(first.getViolations())));
+    }
+
+    private static LangchainConfiguration configuration(Map<String, String> values) {
+        return new LangchainConfiguration(List.of(ConfigSource.fromMap("values", values)), new EnvironmentProvider(key -> null));
+    }
+}
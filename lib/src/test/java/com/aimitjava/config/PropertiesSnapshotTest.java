@@ -0,0 +1,190 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PropertiesSnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldDecodeSameValuesAsProperties() throws IOException {
+        // Given
+        Path properties = write("app.properties", "a=1\nmulti=line \\\n  continued\nunicode=\\u00e4\u00f6\nempty=\n");
+        Path snapshot = tempDir.resolve("app.properties.bin");
+
+        // When
+        PropertiesSnapshot.compile(properties, snapshot);
+        Map<String, String> values = PropertiesSnapshot.read(Files.readAllBytes(snapshot),
+                PropertiesSnapshot.Stamp.of(properties.toUri().toURL()));
+
+        // Then
+        Properties expected = new Properties();
+        try (InputStream input = Files.newInputStream(properties)) {
+            expected.load(input);
+        }
+        assertThat(new HashMap<>(values), is(new HashMap<>(ConfigSnapshot.asMap(expected))));
+    }
+
+    @Test
+    void shouldRejectMalformedPropertiesAtCompileTime() throws IOException {
+        // Given
+        Path properties = write("app.properties", "broken=\\u12G4\n");
+
+        // Then
+        assertThrows(IOException.class, () -> PropertiesSnapshot.compile(properties, tempDir.resolve("app.properties.bin")));
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        // Given
+        byte[] garbage = "a=1".getBytes(StandardCharsets.UTF_8);
+
+        // Then
+        assertThrows(IOException.class, () -> PropertiesSnapshot.read(garbage, null));
+    }
+
+    @Test
+    void shouldWriteReproducibleSnapshots() throws IOException {
+        // Given
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+        // When
+        PropertiesSnapshot.Stamp source = new PropertiesSnapshot.Stamp(0, 0, 0);
+        PropertiesSnapshot.write(Map.of("a", "1", "b", "2", "c", "3"), source, first);
+        PropertiesSnapshot.write(new HashMap<>(Map.of("c", "3", "b", "2", "a", "1")), source, second);
+
+        // Then
+        assertThat(first.toByteArray(), is(second.toByteArray()));
+    }
+
+    @Test
+    void shouldPreferSnapshotOnClasspath() throws IOException {
+        // Given - a snapshot matching the properties file, but with a value only the snapshot has
+        Path properties = write("app.properties", "source=file\n");
+        writeSnapshot(tempDir, properties, Map.of("source", "snapshot"));
+
+        // When
+        Map<String, String> values = load("app.properties");
+
+        // Then
+        assertThat(values.get("source"), is("snapshot"));
+    }
+
+    @Test
+    void shouldIgnoreSnapshotFromOtherClasspathEntry() throws IOException {
+        // Given
+        Path properties = write("app.properties", "source=file\n");
+        Path dependency = Files.createDirectory(tempDir.resolve("dependency"));
+        writeSnapshot(dependency, properties, Map.of("source", "dependency"));
+
+        // When
+        Map<String, String> values;
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{dependency.toUri().toURL(), tempDir.toUri().toURL()}, null)) {
+            values = new PropertiesFileSource("app.properties", classLoader).load();
+        }
+
+        // Then
+        assertThat(values.get("source"), is("file"));
+    }
+
+    @Test
+    void shouldIgnoreSnapshotOfEditedPropertiesFile() throws IOException {
+        // Given
+        Path properties = write("app.properties", "source=snapshot\n");
+        PropertiesSnapshot.compile(properties, tempDir.resolve("app.properties.bin"));
+        write("app.properties", "source=edited\n");
+
+        // When
+        Map<String, String> values = load("app.properties");
+
+        // Then
+        assertThat(values.get("source"), is("edited"));
+    }
+
+    @Test
+    void shouldValidateSnapshotInJarByEntryChecksum() throws IOException {
+        // Given - the modification time of a jar entry never matches, its CRC32 does
+        byte[] source = "source=file\n".getBytes(StandardCharsets.ISO_8859_1);
+        Path jar = writeJar("app.jar", source, Map.of("source", "snapshot"),
+                new PropertiesSnapshot.Stamp(source.length, PropertiesSnapshot.checksum(source), -1));
+
+        // Then
+        assertThat(loadFromJar(jar).get("source"), is("snapshot"));
+    }
+
+    @Test
+    void shouldIgnoreSnapshotInJarWithOtherChecksum() throws IOException {
+        // Given - compiled from another file of the same length
+        byte[] source = "source=file\n".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] other = "source=othr\n".getBytes(StandardCharsets.ISO_8859_1);
+        Path jar = writeJar("app.jar", source, Map.of("source", "snapshot"),
+                new PropertiesSnapshot.Stamp(other.length, PropertiesSnapshot.checksum(other), -1));
+
+        // Then
+        assertThat(loadFromJar(jar).get("source"), is("file"));
+    }
+
+    private Map<String, String> loadFromJar(Path jar) throws IOException {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+            return new PropertiesFileSource("app.properties", classLoader).load();
+        }
+    }
+
+    private Path writeJar(String name, byte[] properties, Map<String, String> values, PropertiesSnapshot.Stamp compiledFrom) throws IOException {
+        Path jar = tempDir.resolve(name);
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar))) {
+            output.putNextEntry(new JarEntry("app.properties"));
+            output.write(properties);
+            output.closeEntry();
+            output.putNextEntry(new JarEntry("app.properties.bin"));
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            PropertiesSnapshot.write(values, compiledFrom, snapshot);
+            output.write(snapshot.toByteArray());
+            output.closeEntry();
+        }
+        return jar;
+    }
+
+    private Map<String, String> load(String name) throws IOException {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, null)) {
+            return new PropertiesFileSource(name, classLoader).load();
+        }
+    }
+
+    private static void writeSnapshot(Path directory, Path properties, Map<String, String> values) throws IOException {
+        byte[] source = Files.readAllBytes(properties);
+        PropertiesSnapshot.Stamp stamp = new PropertiesSnapshot.Stamp(source.length, PropertiesSnapshot.checksum(source),
+                Files.getLastModifiedTime(properties).toMillis());
+        try (OutputStream output = Files.newOutputStream(directory.resolve(PropertiesSnapshot.snapshotName(properties.getFileName().toString())))) {
+            PropertiesSnapshot.write(values, stamp, output);
+        }
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+        return file;
+    }
+}
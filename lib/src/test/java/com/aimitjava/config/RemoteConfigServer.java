@@ -0,0 +1,134 @@
+package com.aimitjava.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for a remote config endpoint, serving revisions published by a test.
+ */
+final class RemoteConfigServer implements AutoCloseable {
+    private final HttpServer server;
+    // Index i holds revision i + 1
+    private final List<Map<String, String>> revisions = new ArrayList<>();
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger deltaResponses = new AtomicInteger();
+
+    RemoteConfigServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/config", this::handle);
+        server.start();
+    }
+
+    URI uri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/config");
+    }
+
+    /**
+     * Publishes a new revision and wakes up waiting long polls.
+     *
+     * @return The revision number
+     */
+    synchronized long publish(Map<String, String> values) {
+        revisions.add(Map.copyOf(values));
+        notifyAll();
+        return revisions.size();
+    }
+
+    int getFullResponses() {
+        return fullResponses.get();
+    }
+
+    int getDeltaResponses() {
+        return deltaResponses.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                int separator = parameter.indexOf('=');
+                query.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+            }
+        }
+        long since = Long.parseLong(query.getOrDefault("since", "0"));
+        long wait = Long.parseLong(query.getOrDefault("wait", "0")) * 1000;
+
+        Map<String, String> base;
+        Map<String, String> latest;
+        long revision;
+        synchronized (this) {
+            long deadline = System.currentTimeMillis() + wait;
+            try {
+                while (revisions.size() <= since && System.currentTimeMillis() < deadline) {
+                    wait(Math.max(1, deadline - System.currentTimeMillis()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            revision = revisions.size();
+            if (revision == 0) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            if (revision <= since) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            base = since > 0 ? revisions.get((int) since - 1) : null;
+            latest = revisions.get((int) revision - 1);
+        }
+
+        Properties body = new Properties();
+        exchange.getResponseHeaders().add(RemoteConfigSource.REVISION_HEADER, Long.toString(revision));
+        if (base == null) {
+            fullResponses.incrementAndGet();
+            body.putAll(latest);
+        } else {
+            deltaResponses.incrementAndGet();
+            List<String> removed = new ArrayList<>();
+            for (String key : base.keySet()) {
+                if (!latest.containsKey(key)) {
+                    removed.add(URLEncoder.encode(key, StandardCharsets.UTF_8));
+                }
+            }
+            latest.forEach((key, value) -> {
+                if (!value.equals(base.get(key))) {
+                    body.put(key, value);
+                }
+            });
+            exchange.getResponseHeaders().add(RemoteConfigSource.DELTA_HEADER, "true");
+            exchange.getResponseHeaders().add(RemoteConfigSource.REMOVED_HEADER, String.join(",", removed));
+        }
+        StringWriter text = new StringWriter();
+        body.store(text, null);
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,146 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class RemoteConfigSourceTest {
+    private static final EnvironmentProvider ENVIRONMENT = new EnvironmentProvider(key -> null);
+
+    @TempDir
+    Path tempDir;
+
+    private RemoteConfigServer server;
+    private Path cacheFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new RemoteConfigServer();
+        cacheFile = tempDir.resolve("remote.cache");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void shouldLoadFullRevisionAndCacheIt() {
+        // Given
+        server.publish(Map.of("openai.model.name", "gpt-4o", "server.port", "8080"));
+
+        // When
+        Configuration configuration = new Configuration(List.of(
+                new RemoteConfigSource(server.uri(), cacheFile)), ENVIRONMENT);
+
+        // Then
+        assertThat(configuration.getProperty("openai.model.name"), is("gpt-4o"));
+        assertThat(configuration.getIntProperty("server.port", 0), is(8080));
+        assertThat(configuration.getPropertySource("server.port"), is(server.uri().toString()));
+        assertThat(server.getFullResponses(), is(1));
+        assertThat(Files.isRegularFile(cacheFile), is(true));
+    }
+
+    @Test
+    void shouldFetchOnlyChangesOnReload() {
+        // Given
+        server.publish(Map.of("a", "1", "b", "2", "c", "3"));
+        Configuration configuration = new Configuration(List.of(
+                new RemoteConfigSource(server.uri(), cacheFile)), ENVIRONMENT);
+        server.publish(Map.of("a", "1", "b", "20", "d", "4"));
+
+        // When
+        configuration.reload();
+
+        // Then
+        assertThat(configuration.getProperty("a"), is("1"));
+        assertThat(configuration.getProperty("b"), is("20"));
+        assertThat(configuration.getProperty("c"), is(nullValue()));
+        assertThat(configuration.getProperty("d"), is("4"));
+        assertThat(server.getFullResponses(), is(1));
+        assertThat(server.getDeltaResponses(), is(1));
+    }
+
+    @Test
+    void shouldResumeFromCachedRevision() throws IOException {
+        // Given
+        server.publish(Map.of("a", "1", "b", "2"));
+        new RemoteConfigSource(server.uri(), cacheFile).load();
+        server.publish(Map.of("a", "1", "b", "3"));
+
+        // When
+        RemoteConfigSource restarted = new RemoteConfigSource(server.uri(), cacheFile);
+        Map<String, String> values = restarted.load();
+
+        // Then
+        assertThat(values, is(Map.of("a", "1", "b", "3")));
+        assertThat(restarted.getRevision(), is(2L));
+        assertThat(server.getFullResponses(), is(1));
+        assertThat(server.getDeltaResponses(), is(1));
+    }
+
+    @Test
+    void shouldStartFromCacheWhenEndpointIsUnreachable() throws IOException {
+        // Given
+        server.publish(Map.of("greeting", "Grüß Gott", "key with spaces", "x=y"));
+        new RemoteConfigSource(server.uri(), cacheFile).load();
+        server.close();
+
+        // When
+        Configuration configuration = new Configuration(List.of(
+                new RemoteConfigSource(server.uri(), cacheFile)), ENVIRONMENT);
+
+        // Then
+        assertThat(configuration.getProperty("greeting"), is("Grüß Gott"));
+        assertThat(configuration.getProperty("key with spaces"), is("x=y"));
+    }
+
+    @Test
+    void shouldSkipUnreachableEndpointWithoutCache() {
+        // Given
+        server.close();
+
+        // When
+        Configuration configuration = new Configuration(List.of(
+                new RemoteConfigSource(server.uri(), cacheFile),
+                ConfigSource.fromMap("defaults", Map.of("a", "default"))), ENVIRONMENT);
+
+        // Then
+        assertThat(configuration.getProperty("a"), is("default"));
+        assertThat(configuration.getLoadReport().sources().get(0).status(), is(ConfigLoadReport.Status.FAILED));
+    }
+
+    @Test
+    void shouldApplyNewRevisionsFromLongPoll() throws InterruptedException {
+        // Given
+        server.publish(Map.of("a", "1"));
+        Configuration configuration = new Configuration(List.of(
+                new RemoteConfigSource(server.uri(), cacheFile, Duration.ofSeconds(5))), ENVIRONMENT);
+        configuration.enableReload(Duration.ofMillis(50));
+
+        try {
+            // When
+            server.publish(Map.of("a", "2"));
+
+            // Then
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (!"2".equals(configuration.getProperty("a")) && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(configuration.getProperty("a"), is("2"));
+        } finally {
+            configuration.disableReload();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.aimitjava.config;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Races many threads on the lazily created singletons, repeatedly, and checks that every round
+ * loads the configuration once and that no thread sees a partially initialized instance.
+ */
+class SingletonConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 50;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        Configuration.reset();
+        EnvironmentProvider.reset();
+    }
+
+    /**
+     * Runs one round: all threads call the getter at the same time.
+     *
+     * @return The distinct instances returned
+     */
+    private static <T> Set<T> race(ExecutorService executor, Supplier<T> getter, Consumer<T> check)
+            throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        Set<T> seen = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                T value = getter.get();
+                check.accept(value);
+                seen.add(value);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return seen;
+    }
+
+    private List<RecordedEvent> initialLoads(Recording recording) throws IOException {
+        Path file = tempDir.resolve("singletons.jfr");
+        recording.dump(file);
+        List<RecordedEvent> loads = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (!event.getBoolean("reload") && "application.properties".equals(event.getString("sources"))) {
+                loads.add(event);
+            }
+        }
+        return loads;
+    }
+
+    @Test
+    void shouldLoadConfigurationOnceUnderContention() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+             Recording recording = new Recording()) {
+            recording.enable("com.aimitjava.config.Load");
+            recording.start();
+
+            for (int round = 0; round < ROUNDS; round++) {
+                // When
+                Set<Configuration> seen = race(executor, Configuration::getInstance, configuration -> {
+                    // Then - fully initialized when visible
+                    assertThat(configuration.getLoadReport(), is(notNullValue()));
+                    assertThat(configuration.getProperty("test.string.property"), is("test-value"));
+                });
+
+                // Then
+                assertThat(seen, hasSize(1));
+                Configuration.reset();
+            }
+            recording.stop();
+
+            // Then
+            assertThat(initialLoads(recording), hasSize(ROUNDS));
+        }
+    }
+
+    @Test
+    void shouldReturnLangchainConfigurationWhenRacingWithBaseClass() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+             Recording recording = new Recording()) {
+            recording.enable("com.aimitjava.config.Load");
+            recording.start();
+
+            for (int round = 0; round < ROUNDS; round++) {
+                // When - half of the threads ask for the base class
+                int[] next = {0};
+                Set<Configuration> seen = race(executor, () -> {
+                    boolean base;
+                    synchronized (next) {
+                        base = next[0]++ % 2 == 0;
+                    }
+                    return base ? Configuration.getInstance() : LangchainConfiguration.getInstance();
+                }, configuration -> assertThat(configuration.getLoadReport(), is(notNullValue())));
+
+                // Then - a thread of the base class may have received the plain instance before it was replaced
+                Configuration langchain = LangchainConfiguration.getInstance();
+                assertThat(langchain, is(instanceOf(LangchainConfiguration.class)));
+                assertThat(seen, hasItem(langchain));
+                assertThat(Configuration.getInstance(), is(sameInstance(langchain)));
+                Configuration.reset();
+            }
+            recording.stop();
+
+            // Then - replacing a plain instance takes over its values instead of loading again
+            assertThat(initialLoads(recording), hasSize(ROUNDS));
+        }
+    }
+
+    @Test
+    void shouldCreateOneEnvironmentProviderUnderContention() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int round = 0; round < ROUNDS; round++) {
+                // When
+                Set<EnvironmentProvider> seen = race(executor, EnvironmentProvider::getInstance,
+                        provider -> assertThat(provider.getEnv("PATH"), is(System.getenv("PATH"))));
+
+                // Then
+                assertThat(seen, hasSize(1));
+                EnvironmentProvider.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TemplateTest {
+    private static final EnvironmentProvider ENVIRONMENT = new EnvironmentProvider(Map.of("API_HOST", "https://api.example.com")::get);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldResolveReferencesToEnvironmentAndOtherKeys() {
+        // Given
+        Configuration configuration = configuration(Map.of(
+                "openai.base.url", "${API_HOST}/v1",
+                "openai.chat.url", "${openai.base.url}/chat",
+                "openai.timeout", "${openai.timeout.seconds:30}"));
+
+        // Then
+        assertThat(configuration.getProperty("openai.base.url"), is("https://api.example.com/v1"));
+        assertThat(configuration.getProperty("openai.chat.url"), is("https://api.example.com/v1/chat"));
+        assertThat(configuration.getIntProperty("openai.timeout", 0), is(30));
+    }
+
+    @Test
+    void shouldSupportNestedDefaultsAndEscapes() {
+        // Given
+        Configuration configuration = configuration(Map.of(
+                "fallback", "secondary",
+                "nested", "${missing:${fallback}}",
+                "escaped", "$${not.a.placeholder}",
+                "unresolved", "x-${missing}-y"));
+
+        // Then
+        assertThat(configuration.getProperty("nested"), is("secondary"));
+        assertThat(configuration.getProperty("escaped"), is("${not.a.placeholder}"));
+        assertThat(configuration.getProperty("unresolved"), is("x-${missing}-y"));
+    }
+
+    @Test
+    void shouldDetectCyclesWhenLoading() {
+        // Then
+        ConfigurationException exception = assertThrows(ConfigurationException.class, () -> configuration(Map.of(
+                "a", "${b}",
+                "b", "${c}",
+                "c", "${a}")));
+        assertThat(exception.getMessage(), containsString("Placeholder cycle"));
+    }
+
+    @Test
+    void shouldKeepPreviousValuesWhenReloadIntroducesCycle() throws IOException {
+        // Given
+        Path file = tempDir.resolve("app.properties");
+        Files.writeString(file, "a=${b}\nb=value\n");
+        Configuration configuration = new Configuration(List.of(ConfigSource.propertiesFile(file.toString())), ENVIRONMENT);
+
+        // When
+        Files.writeString(file, "a=${b}\nb=${a}\n");
+        configuration.reload();
+
+        // Then
+        assertThat(configuration.getProperty("a"), is("value"));
+    }
+
+    @Test
+    void shouldInterpolateMemoryMappedValues() throws IOException {
+        // Given
+        Path file = tempDir.resolve("catalog.properties");
+        Files.writeString(file, "prompt.system=You are served by ${API_HOST}\nprompt.plain=unchanged\n");
+        Configuration configuration = new Configuration(List.of(ConfigSource.mappedPropertiesFile(file)), ENVIRONMENT);
+
+        // Then
+        assertThat(configuration.getProperty("prompt.system"), is("You are served by https://api.example.com"));
+        assertThat(configuration.getProperty("prompt.plain"), is("unchanged"));
+    }
+
+    private static Configuration configuration(Map<String, String> values) {
+        return new Configuration(List.of(ConfigSource.fromMap("values", values)), ENVIRONMENT);
+    }
+}
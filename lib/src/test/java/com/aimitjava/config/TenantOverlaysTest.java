@@ -0,0 +1,118 @@
+package com.aimitjava.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TenantOverlaysTest {
+    private final Configuration base = new Configuration(List.of(ConfigSource.fromMap("base", Map.of(
+            "openai.model.name", "gpt-4o-mini",
+            "openai.temperature", "0.7",
+            "app.name", "shared"))), new EnvironmentProvider(key -> null));
+
+    @Test
+    void shouldReadOverridesBeforeBaseValues() {
+        // Given
+        ConfigOverlay overlay = base.withOverrides(Map.of("openai.temperature", "0.2"));
+
+        // Then
+        assertThat(overlay.getDoubleProperty("openai.temperature", 0.0), is(0.2));
+        assertThat(overlay.getProperty("openai.model.name"), is("gpt-4o-mini"));
+        assertThat(overlay.hasProperty("non.existent.property"), is(false));
+        assertThat(base.getDoubleProperty("openai.temperature", 0.0), is(0.7));
+    }
+
+    @Test
+    void shouldConvertOverriddenValuesOnlyOnce() {
+        // Given
+        ConfigOverlay overlay = base.withOverrides(Map.of("openai.temperature", "0.2"));
+        ConfigKey<Double> temperature = ConfigKey.ofDouble("openai.temperature");
+
+        // Then
+        assertThat(overlay.get(temperature), is(sameInstance(overlay.get(temperature))));
+    }
+
+    @Test
+    void shouldDeriveOverlaysWithoutChangingTheOriginal() {
+        // Given
+        ConfigOverlay original = base.withOverrides(Map.of("openai.temperature", "0.2"));
+
+        // When
+        ConfigOverlay derived = original.withOverrides(Map.of("openai.model.name", "gpt-4o"));
+        ConfigOverlay reverted = derived.withoutOverride("openai.temperature");
+
+        // Then
+        assertThat(original.getOverrides(), is(Map.of("openai.temperature", "0.2")));
+        assertThat(derived.getOverrides(), is(Map.of("openai.temperature", "0.2", "openai.model.name", "gpt-4o")));
+        assertThat(reverted.getProperty("openai.temperature"), is("0.7"));
+        assertThat(reverted.getProperty("openai.model.name"), is("gpt-4o"));
+    }
+
+    @Test
+    void shouldStoreOnlyTenantsWithOverrides() {
+        // Given
+        TenantOverlays tenants = new TenantOverlays(base);
+
+        // When
+        tenants.override("acme", "openai.model.name", "gpt-4o");
+        tenants.override("acme", "openai.temperature", "0.1");
+        tenants.setOverrides("globex", Map.of("app.name", "globex"));
+        tenants.removeOverride("globex", "app.name");
+
+        // Then
+        assertThat(tenants.size(), is(1));
+        assertThat(tenants.forTenant("acme").getProperty("openai.model.name"), is("gpt-4o"));
+        assertThat(tenants.forTenant("acme").getDoubleProperty("openai.temperature", 0.0), is(0.1));
+        assertThat(tenants.forTenant("globex").getProperty("app.name"), is("shared"));
+        assertThat(tenants.forTenant("unknown"), is(sameInstance(tenants.forTenant("other"))));
+    }
+
+    @Test
+    void shouldLetActiveScopeWinOverOverrides() {
+        // Given
+        ConfigOverlay overlay = base.withOverrides(Map.of("openai.temperature", "0.2"));
+
+        // When
+        String[] scoped = new String[2];
+        ConfigScope.with("openai.temperature", "1.5").run(() -> {
+            scoped[0] = overlay.getProperty("openai.temperature");
+            scoped[1] = String.valueOf(overlay.getDoubleProperty("openai.temperature", 0.0));
+        });
+
+        // Then
+        assertThat(scoped, is(arrayContaining("1.5", "1.5")));
+        assertThat(overlay.getDoubleProperty("openai.temperature", 0.0), is(0.2));
+    }
+
+    @Test
+    void shouldApplyOverridesToOpenAiSettingsOfLangchainConfiguration() {
+        // Given
+        LangchainConfiguration langchain = new LangchainConfiguration(List.of(ConfigSource.fromMap("base", Map.of(
+                "openai.api.key", "sk-shared",
+                "openai.model.name", "gpt-4o-mini",
+                "openai.temperature", "0.7"))), new EnvironmentProvider(key -> null));
+        TenantOverlays tenants = new TenantOverlays(langchain);
+
+        // When
+        tenants.override("acme", "openai.model.name", "gpt-4o");
+        tenants.override("acme", "openai.temperature", "0.2");
+        tenants.override("acme", "openai.profile.fast.model.name", "gpt-4o-mini");
+        LangchainConfigOverlay acme = (LangchainConfigOverlay) tenants.forTenant("acme");
+
+        // Then
+        assertThat(acme.getOpenAiModelName(), is("gpt-4o"));
+        assertThat(acme.getOpenAiTemperature(), is(0.2));
+        assertThat(acme.getOpenAiSettings().modelName(), is("gpt-4o"));
+        assertThat(acme.getOpenAiSettings().temperature(), is(0.2));
+        assertThat(acme.getOpenAiSettings().apiKey(), is("sk-shared"));
+        assertThat(acme.getOpenAiSettings(), is(sameInstance(acme.getOpenAiSettings())));
+        assertThat(acme.getOpenAiProfiles(), contains("default", "fast"));
+        assertThat(acme.getOpenAiSettings("fast").temperature(), is(0.2));
+        assertThat(langchain.getOpenAiSettings().modelName(), is("gpt-4o-mini"));
+        assertThat(langchain.getOpenAiProfiles(), contains("default"));
+    }
+}
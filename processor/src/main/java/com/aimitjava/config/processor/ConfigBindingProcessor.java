@@ -0,0 +1,334 @@
+package com.aimitjava.config.processor;
+
+import com.aimitjava.config.ConfigBinding;
+import com.aimitjava.config.ConfigProperty;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Name>Binder} for every interface or record annotated with {@link ConfigBinding}.
+ * Keys, key handles and default values are computed at compile time, so binding at runtime
+ * only reads precomputed {@code ConfigKey}s and calls a constructor.
+ */
+@SupportedAnnotationTypes({"com.aimitjava.config.ConfigBinding", "com.aimitjava.config.ConfigProperty"})
+public class ConfigBindingProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ConfigBinding.class)) {
+            if (element.getKind() != ElementKind.INTERFACE && element.getKind() != ElementKind.RECORD) {
+                error(element, "@ConfigBinding is only supported on interfaces and records");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!type.getTypeParameters().isEmpty()) {
+                error(element, "@ConfigBinding is not supported on generic types");
+                continue;
+            }
+            List<Property> properties = collectProperties(type);
+            if (properties != null) {
+                writeBinder(type, properties);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The properties in declaration order, or null if an error was reported
+     */
+    private List<Property> collectProperties(TypeElement type) {
+        String prefix = type.getAnnotation(ConfigBinding.class).prefix();
+        List<Property> properties = new ArrayList<>();
+        boolean valid = true;
+
+        List<? extends Element> members = type.getKind() == ElementKind.RECORD
+                ? type.getRecordComponents()
+                : abstractMethods(type);
+        for (Element member : members) {
+            TypeMirror valueType = member instanceof RecordComponentElement component
+                    ? component.asType()
+                    : ((ExecutableElement) member).getReturnType();
+            ValueType kind = ValueType.of(valueType);
+            if (kind == null) {
+                error(member, "Unsupported configuration type " + valueType);
+                valid = false;
+                continue;
+            }
+
+            String name = member.getSimpleName().toString();
+            ConfigProperty annotation = member.getAnnotation(ConfigProperty.class);
+            String key = annotation != null && !annotation.name().isEmpty()
+                    ? annotation.name()
+                    : deriveKey(prefix, name);
+            String defaultValue = annotation != null && !annotation.defaultValue().isEmpty()
+                    ? annotation.defaultValue()
+                    : null;
+            if (defaultValue != null && !kind.isValid(defaultValue)) {
+                error(member, "Default value \"" + defaultValue + "\" is not a valid " + kind.boxedName);
+                valid = false;
+                continue;
+            }
+            properties.add(new Property(name, key, valueType.toString(), kind, valueType.getKind().isPrimitive(), defaultValue));
+        }
+        return valid ? properties : null;
+    }
+
+    /**
+     * @return The abstract methods of an interface, including those inherited from its super
+     *         interfaces, since the generated implementation has to implement all of them
+     */
+    private List<ExecutableElement> abstractMethods(TypeElement type) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) {
+                error(method, "Configuration methods must not have parameters and must return a value");
+                continue;
+            }
+            methods.add(method);
+        }
+        return methods;
+    }
+
+    /**
+     * Derives a dotted key from a camel-case name, e.g. {@code maxTokens} with prefix
+     * {@code openai} becomes {@code openai.max.tokens}.
+     */
+    static String deriveKey(String prefix, String name) {
+        StringBuilder key = new StringBuilder(prefix);
+        if (!prefix.isEmpty() && !prefix.endsWith(".")) {
+            key.append('.');
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) {
+                key.append('.');
+            }
+            key.append(Character.toLowerCase(c));
+        }
+        return key.toString();
+    }
+
+    private void writeBinder(TypeElement type, List<Property> properties) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String typeName = type.getQualifiedName().toString();
+        String simpleName = binderName(type);
+        String binderName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        boolean isRecord = type.getKind() == ElementKind.RECORD;
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import com.aimitjava.config.ConfigBinder;\n")
+                .append("import com.aimitjava.config.ConfigKey;\n")
+                .append("import com.aimitjava.config.Configuration;\n\n")
+                .append("import java.util.List;\n\n")
+                // No @Generated: no processor claims it, so it would cause a warning under -Xlint:processing
+                .append("/**\n * Binds {@link ").append(typeName).append("} from a {@link Configuration}.\n")
+                .append(" * Generated by {@code ").append(getClass().getName()).append("}.\n */\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements ConfigBinder<").append(typeName).append("> {\n");
+
+        source.append("    /** The keys read by this binder, in binding order. */\n")
+                .append("    public static final List<String> KEYS = List.of(");
+        for (int i = 0; i < properties.size(); i++) {
+            source.append(i > 0 ? ", " : "").append(stringLiteral(properties.get(i).key()));
+        }
+        source.append(");\n\n");
+
+        for (Property property : properties) {
+            source.append("    private static final ConfigKey<").append(property.kind().boxedName).append("> ")
+                    .append(property.constantName()).append(" = ConfigKey.").append(property.kind().factory)
+                    .append('(').append(stringLiteral(property.key())).append(");\n");
+        }
+
+        source.append("\n    @Override\n")
+                .append("    public ").append(typeName).append(" bind(Configuration configuration) {\n");
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            String variable = "value" + i;
+            arguments.add(variable);
+            source.append("        ").append(property.kind().boxedName).append(' ').append(variable)
+                    .append(" = configuration.get(").append(property.constantName());
+            if (property.defaultValue() != null) {
+                source.append(", ").append(property.kind().literal(property.defaultValue()));
+            }
+            source.append(");\n");
+            if (property.primitive() && property.defaultValue() == null) {
+                source.append("        if (").append(variable).append(" == null) {\n")
+                        .append("            throw new IllegalStateException(")
+                        .append(stringLiteral("Missing or invalid configuration property: " + property.key())).append(");\n")
+                        .append("        }\n");
+            }
+        }
+        source.append("        return new ").append(isRecord ? typeName : "Bound")
+                .append('(').append(String.join(", ", arguments)).append(");\n")
+                .append("    }\n");
+
+        if (!isRecord) {
+            // A record whose accessors implement the interface methods
+            source.append("\n    private record Bound(");
+            for (int i = 0; i < properties.size(); i++) {
+                Property property = properties.get(i);
+                source.append(i > 0 ? ", " : "").append(property.typeName()).append(' ').append(property.name());
+            }
+            source.append(") implements ").append(typeName).append(" {\n    }\n");
+        }
+        source.append("}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(binderName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+        } catch (IOException e) {
+            error(type, "Could not write " + binderName + ": " + e.getMessage());
+        }
+    }
+
+    private static String binderName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement outer) {
+            name.insert(0, outer.getSimpleName() + "_");
+            enclosing = outer.getEnclosingElement();
+        }
+        return name.append("Binder").toString();
+    }
+
+    static String stringLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < ' ') {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static String doubleLiteral(double value) {
+        if (Double.isNaN(value)) {
+            return "Double.NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+        }
+        return Double.toString(value);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private record Property(String name, String key, String typeName, ValueType kind, boolean primitive,
+                            String defaultValue) {
+        String constantName() {
+            return "KEY_" + name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * The supported value types with their key factory and default-value handling.
+     */
+    private enum ValueType {
+        STRING("String", "ofString"),
+        INT("Integer", "ofInt"),
+        LONG("Long", "ofLong"),
+        DOUBLE("Double", "ofDouble"),
+        BOOLEAN("Boolean", "ofBoolean");
+
+        private final String boxedName;
+        private final String factory;
+
+        ValueType(String boxedName, String factory) {
+            this.boxedName = boxedName;
+            this.factory = factory;
+        }
+
+        static ValueType of(TypeMirror type) {
+            return switch (type.getKind()) {
+                case INT -> INT;
+                case LONG -> LONG;
+                case DOUBLE -> DOUBLE;
+                case BOOLEAN -> BOOLEAN;
+                case DECLARED -> switch (type.toString()) {
+                    case "java.lang.String" -> STRING;
+                    case "java.lang.Integer" -> INT;
+                    case "java.lang.Long" -> LONG;
+                    case "java.lang.Double" -> DOUBLE;
+                    case "java.lang.Boolean" -> BOOLEAN;
+                    default -> null;
+                };
+                default -> null;
+            };
+        }
+
+        boolean isValid(String value) {
+            try {
+                switch (this) {
+                    case INT -> Integer.parseInt(value);
+                    case LONG -> Long.parseLong(value);
+                    case DOUBLE -> Double.parseDouble(value);
+                    default -> {
+                        // Any string is a valid String or Boolean
+                    }
+                }
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        String literal(String value) {
+            return switch (this) {
+                case STRING -> stringLiteral(value);
+                case INT -> "Integer.valueOf(" + Integer.parseInt(value) + ")";
+                case LONG -> "Long.valueOf(" + Long.parseLong(value) + "L)";
+                case DOUBLE -> "Double.valueOf(" + doubleLiteral(Double.parseDouble(value)) + ")";
+                case BOOLEAN -> "Boolean.valueOf(" + Boolean.parseBoolean(value) + ")";
+            };
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.aimitjava.config.processor;
+
+import com.aimitjava.config.ConfigBinding;
+import com.aimitjava.config.ConfigProperty;
+import com.aimitjava.config.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConfigBindingProcessorTest {
+
+    @ConfigBinding(prefix = "openai")
+    record OpenAiSettings(String modelName,
+                          @ConfigProperty(defaultValue = "0.7") double temperature,
+                          @ConfigProperty(name = "openai.max.tokens.limit") Integer maxTokens,
+                          String baseUrl) {
+    }
+
+    @ConfigBinding(prefix = "server")
+    interface ServerSettings {
+        int port();
+
+        @ConfigProperty(defaultValue = "false")
+        boolean debug();
+
+        @ConfigProperty(defaultValue = "30000")
+        long timeoutMillis();
+    }
+
+    interface BaseSettings {
+        String host();
+
+        @ConfigProperty(defaultValue = "8443")
+        int port();
+    }
+
+    @ConfigBinding(prefix = "server")
+    interface ExtendedSettings extends BaseSettings {
+        boolean debug();
+    }
+
+    @ConfigBinding(prefix = "missing")
+    record RequiredSettings(int value) {
+    }
+
+    @ConfigBinding
+    record QuotedKeySettings(@ConfigProperty(name = "missing.\"quoted\"\\key") int value) {
+    }
+
+    private Configuration configuration;
+
+    @BeforeEach
+    void setUp() {
+        configuration = Configuration.fromFile("binding.properties");
+    }
+
+    @Test
+    void shouldBindRecord() {
+        OpenAiSettings settings = new ConfigBindingProcessorTest_OpenAiSettingsBinder().bind(configuration);
+
+        assertThat(settings.modelName(), is("gpt-4o"));
+        assertThat(settings.temperature(), is(0.7));
+        assertThat(settings.maxTokens(), is(2048));
+        assertThat(settings.baseUrl(), is(nullValue()));
+    }
+
+    @Test
+    void shouldBindInterface() {
+        ServerSettings settings = new ConfigBindingProcessorTest_ServerSettingsBinder().bind(configuration);
+
+        assertThat(settings.port(), is(8080));
+        assertThat(settings.debug(), is(true));
+        assertThat(settings.timeoutMillis(), is(30000L));
+    }
+
+    @Test
+    void shouldBindInheritedInterfaceMethods() {
+        ExtendedSettings settings = new ConfigBindingProcessorTest_ExtendedSettingsBinder().bind(configuration);
+
+        assertThat(settings.host(), is("localhost"));
+        assertThat(settings.port(), is(8080));
+        assertThat(settings.debug(), is(true));
+        assertThat(ConfigBindingProcessorTest_ExtendedSettingsBinder.KEYS,
+                containsInAnyOrder("server.host", "server.port", "server.debug"));
+    }
+
+    @Test
+    void shouldExposeKeysInBindingOrder() {
+        assertThat(ConfigBindingProcessorTest_OpenAiSettingsBinder.KEYS, contains(
+                "openai.model.name", "openai.temperature", "openai.max.tokens.limit", "openai.base.url"));
+    }
+
+    @Test
+    void shouldFailForMissingPrimitiveWithoutDefault() {
+        assertThrows(IllegalStateException.class,
+                () -> new ConfigBindingProcessorTest_RequiredSettingsBinder().bind(configuration));
+    }
+
+    @Test
+    void shouldEscapeKeysInErrorMessages() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new ConfigBindingProcessorTest_QuotedKeySettingsBinder().bind(configuration));
+
+        assertThat(exception.getMessage(), endsWith("missing.\"quoted\"\\key"));
+    }
+
+    @Test
+    void shouldDeriveDottedKeys() {
+        assertThat(ConfigBindingProcessor.deriveKey("openai", "maxTokens"), is("openai.max.tokens"));
+        assertThat(ConfigBindingProcessor.deriveKey("", "port"), is("port"));
+        assertThat(ConfigBindingProcessor.deriveKey("server.", "port"), is("server.port"));
+    }
+}